@@ -0,0 +1,17 @@
+package parkinglot.bench;
+
+import java.util.*;
+
+// Comma-separated option values for the benchmark and simulator drivers,
+// e.g. "--lot 1000,100000"
+final class CommandLineLists {
+    private CommandLineLists() {}
+    
+    static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+    
+    static double[] parseDoubles(String csv) {
+        return Arrays.stream(csv.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+}
@@ -0,0 +1,397 @@
+package parkinglot.bench;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.sql.*;
+import java.time.*;
+
+import parkinglot.core.Bike;
+import parkinglot.core.Car;
+import parkinglot.core.EventJournal;
+import parkinglot.core.HistoryColumns;
+import parkinglot.core.ParkingLotSystem;
+import parkinglot.core.ParkingRecord;
+import parkinglot.core.ParkingTicket;
+import parkinglot.core.Truck;
+import parkinglot.core.Vehicle;
+import parkinglot.core.VehicleCategory;
+import parkinglot.persistence.DatabaseProfile;
+import parkinglot.persistence.ParkingDatabaseManager;
+import parkinglot.persistence.PersistenceEvent;
+
+// Throughput and allocation benchmarks for the park/exit/lookup hot paths.
+// Run with: java -cp <classes> parkinglot.bench.ParkingBenchmark [--lot 1000,100000] [--occupancy 0.5,0.9]
+//     [--threads 1,4] [--ops 200000] [--warmup 1] [--iterations 3] [--format csv|json]
+//     [--db embedded|mysql] [--db-ops 20000]
+// "journal" is park+exit with an EventJournal attached; "replay" journals park/exit
+// pairs and times rebuilding a new lot from them (one thread only, ops = events);
+// "restart" does the same after a snapshot, so only the snapshot is read.
+// "report" fills the history with ops records and times revenue-by-category scans
+// over its columns (ops = rows scanned).
+// --db adds per-event persistence benchmarks, cached statements against
+// prepare-per-event, on the given database profile. They run on one thread,
+// like the write-behind writer that issues these statements.
+// One result line per benchmark and parameter set goes to stdout, so runs can be
+// diffed or loaded into a spreadsheet across releases.
+final class ParkingBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String[] BENCHMARKS =
+        { "park", "exit", "search", "availability", "history", "truck", "journal", "replay", "restart", "report" };
+    private static final String[] DB_BENCHMARKS = { "db-insert", "db-insert-unprepared" };
+    
+    // Work done by one thread; returns {nanos, allocatedBytes, ops}
+    private interface Workload {
+        long[] run(int thread) throws Exception;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int[] lotSizes = { 1000, 100000 };
+        double[] occupancies = { 0.5, 0.9 };
+        int[] threadCounts = { 1, Runtime.getRuntime().availableProcessors() };
+        int ops = 200000;
+        int warmup = 1;
+        int iterations = 3;
+        boolean json = false;
+        DatabaseProfile dbProfile = null;
+        int dbOps = 20000;
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--lot": lotSizes = CommandLineLists.parseInts(args[i + 1]); break;
+                case "--occupancy": occupancies = CommandLineLists.parseDoubles(args[i + 1]); break;
+                case "--threads": threadCounts = CommandLineLists.parseInts(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--format": json = args[i + 1].equalsIgnoreCase("json"); break;
+                case "--db": dbProfile = DatabaseProfile.valueOf(args[i + 1].toUpperCase()); break;
+                case "--db-ops": dbOps = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        PrintStream results = System.out;
+        if (!json) {
+            results.println("benchmark,lotSize,occupancy,threads,ops,opsPerSec,nsPerOp,bytesPerOp,fragmentation");
+        }
+        
+        // searchVehicle prints the vehicle's details - keep console output out of the numbers
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (String benchmark : BENCHMARKS) {
+                for (int lotSize : lotSizes) {
+                    for (double occupancy : occupancies) {
+                        for (int threads : threadCounts) {
+                            for (int i = 0; i < warmup; i++) {
+                                measure(benchmark, lotSize, occupancy, threads, ops);
+                            }
+                            long nanos = 0;
+                            long bytes = 0;
+                            long done = 0;
+                            double fragmentation = 0;
+                            for (int i = 0; i < iterations; i++) {
+                                double[] r = measure(benchmark, lotSize, occupancy, threads, ops);
+                                nanos += (long) r[0];
+                                bytes += (long) r[1];
+                                done += (long) r[2];
+                                fragmentation = r[3];
+                            }
+                            report(results, json, benchmark, lotSize, occupancy, threads, done, nanos, bytes, fragmentation);
+                        }
+                    }
+                }
+            }
+            if (dbProfile != null) {
+                runDatabaseBenchmarks(results, json, dbProfile, dbOps, warmup, iterations);
+            }
+        } finally {
+            System.setOut(results);
+        }
+    }
+    
+    // Returns {per-thread nanos summed, allocated bytes, ops, fragmentation}
+    private static double[] measure(String benchmark, int lotSize, double occupancy, int threads, int ops)
+            throws Exception {
+        boolean restoring = benchmark.equals("replay") || benchmark.equals("restart");
+        boolean journaled = restoring || benchmark.equals("journal");
+        if (restoring && threads != 1) {
+            return new double[] { 0, 0, 0, 0 };
+        }
+        Path journalDirectory = journaled ? Files.createTempDirectory("parking-journal") : null;
+        try {
+            return measure(benchmark, lotSize, occupancy, threads, ops, journalDirectory);
+        } finally {
+            if (journalDirectory != null) {
+                deleteDirectory(journalDirectory);
+            }
+        }
+    }
+    
+    private static double[] measure(String benchmark, int lotSize, double occupancy, int threads, int ops,
+                                    Path journalDirectory) throws Exception {
+        ParkingLotSystem system = new ParkingLotSystem(lotSize, lotSize, lotSize);
+        EventJournal journal = null;
+        if (journalDirectory != null) {
+            journal = new EventJournal(journalDirectory);
+            system.recover(journal);
+        }
+        VehicleCategory category = benchmark.equals("truck") ? VehicleCategory.TRUCK : VehicleCategory.CAR;
+        int perVehicle = (category == VehicleCategory.TRUCK) ? 2 : 1;
+        
+        // Pre-fill to the requested occupancy, shared by all threads
+        int filled = (int) (lotSize * occupancy) / perVehicle;
+        for (int i = 0; i < filled; i++) {
+            system.parkVehicle(newVehicle(category, "F" + i));
+        }
+        
+        // Each thread parks and exits its own batch so occupancy stays put
+        int batch = Math.max(1, Math.min(1000, (lotSize / perVehicle - filled) / threads));
+        int perThread = Math.max(1, ops / threads);
+        ParkingRecord sampleRecord = sampleRecord();
+        
+        Workload workload;
+        switch (benchmark) {
+            case "park":
+            case "exit":
+            case "truck":
+            case "journal":
+                boolean timePark = !benchmark.equals("exit");
+                boolean timeExit = !benchmark.equals("park");
+                workload = thread -> {
+                    String[] plates = new String[batch];
+                    for (int i = 0; i < batch; i++) {
+                        plates[i] = "T" + thread + "-" + i;
+                    }
+                    long nanos = 0;
+                    long bytes = 0;
+                    int done = 0;
+                    while (done < perThread) {
+                        Vehicle[] vehicles = new Vehicle[batch];
+                        for (int i = 0; i < batch; i++) {
+                            vehicles[i] = newVehicle(category, plates[i]);
+                        }
+                        long bytesBefore = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+                        long start = System.nanoTime();
+                        for (int i = 0; i < batch; i++) {
+                            system.parkVehicle(vehicles[i]);
+                        }
+                        long parked = System.nanoTime();
+                        long bytesParked = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+                        for (int i = 0; i < batch; i++) {
+                            system.exitVehicle(plates[i]);
+                        }
+                        long exited = System.nanoTime();
+                        long bytesExited = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+                        
+                        nanos += (timePark ? parked - start : 0) + (timeExit ? exited - parked : 0);
+                        bytes += (timePark ? bytesParked - bytesBefore : 0) + (timeExit ? bytesExited - bytesParked : 0);
+                        done += batch;
+                    }
+                    return new long[] { nanos, bytes, done };
+                };
+                break;
+            case "search":
+                if (filled == 0) {
+                    return new double[] { 0, 0, 0, 0 };
+                }
+                workload = thread -> {
+                    String[] plates = new String[1024];
+                    Random random = new Random(thread);
+                    for (int i = 0; i < plates.length; i++) {
+                        plates[i] = "F" + random.nextInt(filled);
+                    }
+                    return timed(perThread, i -> system.searchVehicle(plates[i & 1023]));
+                };
+                break;
+            case "availability":
+                workload = thread -> timed(perThread, i -> {
+                    for (VehicleCategory c : VehicleCategory.values()) {
+                        system.getAvailableSlots(c);
+                    }
+                    system.getLargestFreeRun(VehicleCategory.TRUCK);
+                });
+                break;
+            case "history":
+                workload = thread -> timed(perThread, i -> system.appendHistory(sampleRecord));
+                break;
+            case "report":
+                for (int i = 0; i < ops; i++) {
+                    system.appendHistory(sampleRecord);
+                }
+                HistoryColumns columns = system.getHistoryColumns();
+                LocalDateTime from = sampleRecord.getExitTime().minusHours(1);
+                LocalDateTime to = sampleRecord.getExitTime().plusHours(1);
+                workload = thread -> {
+                    long[] result = timed(10, i -> columns.totals(from, to));
+                    result[2] = 10L * columns.size();
+                    return result;
+                };
+                break;
+            case "replay":
+            case "restart":
+                for (int i = 0; i < perThread / 2; i++) {
+                    String plate = "R" + (i % batch);
+                    system.parkVehicle(newVehicle(category, plate));
+                    system.exitVehicle(plate);
+                }
+                if (benchmark.equals("restart")) {
+                    journal.snapshot(system);
+                }
+                journal.close();
+                long events = filled + 2 * (perThread / 2);
+                workload = thread -> {
+                    try (EventJournal reopened = new EventJournal(journalDirectory)) {
+                        ParkingLotSystem rebuilt = new ParkingLotSystem(lotSize, lotSize, lotSize);
+                        long[] result = timed(1, i -> rebuilt.recover(reopened));
+                        result[2] = events;
+                        return result;
+                    }
+                };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown benchmark: " + benchmark);
+        }
+        
+        long[] totals = runThreads(threads, workload);
+        if (journal != null) {
+            journal.close();
+        }
+        return new double[] { totals[0], totals[1], totals[2], system.getFragmentation(category) };
+    }
+    
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    private static void runDatabaseBenchmarks(PrintStream results, boolean json, DatabaseProfile profile,
+                                              int ops, int warmup, int iterations)
+            throws Exception {
+        ParkingDatabaseManager db = new ParkingDatabaseManager();
+        db.connect(profile);
+        if (!db.isConnected()) {
+            throw new IllegalStateException("Cannot connect to the " + profile.getDisplayName() + " database");
+        }
+        try {
+            // Warm both paths before measuring either, so neither pays for JIT alone
+            for (int i = 0; i < warmup; i++) {
+                for (String benchmark : DB_BENCHMARKS) {
+                    measureDatabase(db, benchmark, ops);
+                }
+            }
+            for (String benchmark : DB_BENCHMARKS) {
+                long[] totals = new long[3];
+                for (int i = 0; i < iterations; i++) {
+                    long[] r = measureDatabase(db, benchmark, ops);
+                    for (int j = 0; j < totals.length; j++) {
+                        totals[j] += r[j];
+                    }
+                }
+                report(results, json, benchmark, 0, 0, 1, totals[2], totals[0], totals[1], 0);
+            }
+        } finally {
+            db.disconnect();
+        }
+    }
+    
+    // One entry insert per op, through the statement cache or preparing it every time
+    private static long[] measureDatabase(ParkingDatabaseManager db, String benchmark, int ops)
+            throws Exception {
+        // Vehicles get their entry time when parked, so park one to have an entry to insert
+        Vehicle vehicle = newVehicle(VehicleCategory.CAR, "DB0001");
+        ParkingTicket ticket = new ParkingLotSystem(1, 0, 0).parkVehicle(vehicle);
+        PersistenceEvent entry = PersistenceEvent.entry(vehicle, ticket.getSlotNumber());
+        boolean cached = benchmark.equals("db-insert");
+        return runThreads(1, thread -> timed(ops, i -> db.withConnection(connection -> {
+            if (cached) {
+                PreparedStatement pstmt = connection.prepare(ParkingDatabaseManager.INSERT_ENTRY_SQL);
+                entry.bind(pstmt);
+                return pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = connection.get().prepareStatement(ParkingDatabaseManager.INSERT_ENTRY_SQL)) {
+                entry.bind(pstmt);
+                return pstmt.executeUpdate();
+            }
+        })));
+    }
+    
+    private interface Operation {
+        void run(int i) throws Exception;
+    }
+    
+    private static long[] timed(int ops, Operation operation) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            operation.run(i);
+        }
+        long nanos = System.nanoTime() - start;
+        return new long[] { nanos, THREADS.getThreadAllocatedBytes(thread) - bytesBefore, ops };
+    }
+    
+    private static long[] runThreads(int threads, Workload workload) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return workload.run(thread);
+                }));
+            }
+            long[] totals = new long[3];
+            for (Future<long[]> future : futures) {
+                long[] result = future.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += result[i];
+                }
+            }
+            return totals;
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private static void report(PrintStream out, boolean json, String benchmark, int lotSize, double occupancy,
+                               int threads, long ops, long nanos, long bytes, double fragmentation) {
+        if (ops == 0) {
+            return;
+        }
+        // nanos is summed over threads, so per-op latency is per thread and throughput scales with threads
+        double nsPerOp = (double) nanos / ops;
+        double opsPerSec = threads * 1e9 / nsPerOp;
+        double bytesPerOp = (double) bytes / ops;
+        if (json) {
+            out.printf(Locale.ROOT, "{\"benchmark\":\"%s\",\"lotSize\":%d,\"occupancy\":%.2f,\"threads\":%d,"
+                + "\"ops\":%d,\"opsPerSec\":%.0f,\"nsPerOp\":%.1f,\"bytesPerOp\":%.1f,\"fragmentation\":%.3f}%n",
+                benchmark, lotSize, occupancy, threads, ops, opsPerSec, nsPerOp, bytesPerOp, fragmentation);
+        } else {
+            out.printf(Locale.ROOT, "%s,%d,%.2f,%d,%d,%.0f,%.1f,%.1f,%.3f%n",
+                benchmark, lotSize, occupancy, threads, ops, opsPerSec, nsPerOp, bytesPerOp, fragmentation);
+        }
+    }
+    
+    private static Vehicle newVehicle(VehicleCategory category, String number) {
+        switch (category) {
+            case BIKE: return new Bike(number, "Bench", "0000000000", "Bench");
+            case TRUCK: return new Truck(number, "Bench", "0000000000", 4);
+            default: return new Car(number, "Bench", "0000000000", "Bench");
+        }
+    }
+    
+    private static ParkingRecord sampleRecord() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 9, 0);
+        return ParkingRecord.restore("REC0", "HIST", "Car", VehicleCategory.CAR, time, time, 0);
+    }
+}
@@ -0,0 +1,310 @@
+package parkinglot.bench;
+
+import java.io.*;
+import java.util.*;
+import java.time.*;
+
+import parkinglot.core.Bike;
+import parkinglot.core.Car;
+import parkinglot.core.InvalidVehicleException;
+import parkinglot.core.Money;
+import parkinglot.core.ParkingFullException;
+import parkinglot.core.ParkingLotSystem;
+import parkinglot.core.SlotNotAvailableException;
+import parkinglot.core.Truck;
+import parkinglot.core.Vehicle;
+import parkinglot.core.VehicleCategory;
+import parkinglot.core.VehicleNotFoundException;
+import parkinglot.core.VirtualClock;
+
+// Discrete-event traffic simulator. Arrivals per vehicle type follow a Poisson
+// process whose hourly rate is shaped by a profile; each parked vehicle schedules
+// its own departure after a log-normal stay. Events are processed in time order
+// on a VirtualClock, so a year of traffic runs as fast as the engine can park
+// and exit. Reports wall-clock throughput, park/exit latency percentiles,
+// rejections per type and occupancy by hour of day.
+// Run with: java -cp <classes> parkinglot.bench.TrafficSimulator [--lot 50,100,20] [--days 365]
+//     [--profile poisson|rush-hour|event-day] [--rates 15,20,1.5] [--stays 150,90,300]
+//     [--seed 1] [--occupancy-csv <file>]
+// --rates are base arrivals per hour and --stays mean stays in minutes, per car,
+// bike and truck. --occupancy-csv writes the hourly occupancy curve.
+final class TrafficSimulator {
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final double STAY_SIGMA = 0.5; // spread of log-normal stays
+    
+    // Arrival rate multipliers by time of day and day of week
+    enum TrafficProfile {
+        POISSON, RUSH_HOUR, EVENT_DAY;
+        
+        static final double MAX_MULTIPLIER = 5.0;
+        
+        double multiplier(LocalDateTime time) {
+            if (this == POISSON) {
+                return 1.0;
+            }
+            int hour = time.getHour();
+            DayOfWeek day = time.getDayOfWeek();
+            boolean weekend = (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY);
+            if (this == EVENT_DAY && day == DayOfWeek.SATURDAY && hour >= 16 && hour < 23) {
+                return MAX_MULTIPLIER; // stadium evening
+            }
+            double rate;
+            if (hour < 6) {
+                rate = 0.2;
+            } else if ((hour >= 7 && hour < 10) || (hour >= 17 && hour < 20)) {
+                rate = 2.5;
+            } else {
+                rate = 1.0;
+            }
+            return weekend ? rate * 0.6 : rate;
+        }
+    }
+    
+    private enum EventType { ARRIVAL, DEPARTURE, SAMPLE }
+    
+    private static final class SimEvent implements Comparable<SimEvent> {
+        final long time; // virtual epoch millis
+        final long sequence; // breaks ties in scheduling order
+        final EventType type;
+        final VehicleCategory category;
+        final String vehicleNumber;
+        
+        SimEvent(long time, long sequence, EventType type, VehicleCategory category, String vehicleNumber) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.category = category;
+            this.vehicleNumber = vehicleNumber;
+        }
+        
+        @Override
+        public int compareTo(SimEvent other) {
+            int byTime = Long.compare(time, other.time);
+            return (byTime != 0) ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+    
+    // Latencies in nanoseconds, 16 sub-buckets per power of two (about 6% error)
+    private static final class LatencyHistogram {
+        private final long[] counts = new long[64 * 16];
+        private long total;
+        
+        void record(long nanos) {
+            long value = Math.max(1, nanos);
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (exponent < 4) ? (int) (value << (4 - exponent)) & 15 : (int) (value >>> (exponent - 4)) & 15;
+            counts[exponent * 16 + sub]++;
+            total++;
+        }
+        
+        long percentile(double p) {
+            long rank = (long) Math.ceil(p / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1, rank)) {
+                    int exponent = i / 16;
+                    return (exponent < 4) ? (1L << exponent) : (16L + (i % 16)) << (exponent - 4);
+                }
+            }
+            return 0;
+        }
+        
+        long getCount() { return total; }
+    }
+    
+    private final ParkingLotSystem lot;
+    private final VirtualClock clock;
+    private final TrafficProfile profile;
+    private final double[] ratesPerHour;
+    private final double[] meanStayMinutes;
+    private final Random random;
+    private final PriorityQueue<SimEvent> queue = new PriorityQueue<>();
+    private long sequence;
+    private long nextPlate;
+    
+    private final long[] arrivals = new long[VehicleCategory.values().length];
+    private final long[] rejected = new long[VehicleCategory.values().length];
+    private final LatencyHistogram parkLatency = new LatencyHistogram();
+    private final LatencyHistogram exitLatency = new LatencyHistogram();
+    private final double[][] occupancyByHour = new double[VehicleCategory.values().length][24];
+    private final double[] peakOccupancy = new double[VehicleCategory.values().length];
+    private long samples;
+    private PrintWriter occupancyCsv;
+    
+    TrafficSimulator(int[] slots, TrafficProfile profile, double[] ratesPerHour, double[] meanStayMinutes, long seed) {
+        this.clock = new VirtualClock(START);
+        this.lot = new ParkingLotSystem(slots[0], slots[1], slots[2], clock);
+        this.profile = profile;
+        this.ratesPerHour = ratesPerHour;
+        this.meanStayMinutes = meanStayMinutes;
+        this.random = new Random(seed);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int[] slots = { 50, 100, 20 };
+        int days = 365;
+        TrafficProfile profile = TrafficProfile.RUSH_HOUR;
+        double[] rates = { 15, 20, 1.5 };
+        double[] stays = { 150, 90, 300 };
+        long seed = 1;
+        String csv = null;
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--lot": slots = CommandLineLists.parseInts(args[i + 1]); break;
+                case "--days": days = Integer.parseInt(args[i + 1]); break;
+                case "--profile": profile = TrafficProfile.valueOf(args[i + 1].toUpperCase().replace('-', '_')); break;
+                case "--rates": rates = CommandLineLists.parseDoubles(args[i + 1]); break;
+                case "--stays": stays = CommandLineLists.parseDoubles(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--occupancy-csv": csv = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        TrafficSimulator simulator = new TrafficSimulator(slots, profile, rates, stays, seed);
+        if (csv != null) {
+            try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(csv)))) {
+                simulator.occupancyCsv = out;
+                out.println("time,car,bike,truck");
+                simulator.run(days);
+            }
+        } else {
+            simulator.run(days);
+        }
+    }
+    
+    void run(int days) {
+        long start = clock.millis();
+        long end = start + days * 24 * HOUR_MILLIS;
+        for (VehicleCategory category : VehicleCategory.values()) {
+            scheduleArrival(category, start);
+        }
+        schedule(start, EventType.SAMPLE, null, null);
+        
+        long events = 0;
+        long wallStart = System.nanoTime();
+        SimEvent event;
+        while ((event = queue.poll()) != null && event.time < end) {
+            clock.advanceMillis(event.time - clock.millis());
+            switch (event.type) {
+                case ARRIVAL: arrive(event.category); break;
+                case DEPARTURE: depart(event.vehicleNumber); break;
+                default: sample(); break;
+            }
+            events++;
+        }
+        report(days, events, System.nanoTime() - wallStart);
+    }
+    
+    private void arrive(VehicleCategory category) {
+        int c = category.ordinal();
+        arrivals[c]++;
+        String vehicleNumber = "SIM" + (nextPlate++);
+        Vehicle vehicle;
+        switch (category) {
+            case CAR: vehicle = new Car(vehicleNumber, "Sim", "0", "Sedan"); break;
+            case BIKE: vehicle = new Bike(vehicleNumber, "Sim", "0", "Scooter"); break;
+            default: vehicle = new Truck(vehicleNumber, "Sim", "0", 3 + random.nextInt(8)); break;
+        }
+        long begin = System.nanoTime();
+        try {
+            lot.parkVehicle(vehicle);
+            parkLatency.record(System.nanoTime() - begin);
+            double stay = meanStayMinutes[c] * Math.exp(STAY_SIGMA * random.nextGaussian() - STAY_SIGMA * STAY_SIGMA / 2);
+            schedule(clock.millis() + Math.max(1, (long) (stay * 60_000)), EventType.DEPARTURE, category, vehicleNumber);
+        } catch (ParkingFullException | SlotNotAvailableException | InvalidVehicleException e) {
+            parkLatency.record(System.nanoTime() - begin);
+            rejected[c]++;
+        }
+        scheduleArrival(category, clock.millis());
+    }
+    
+    private void depart(String vehicleNumber) {
+        long begin = System.nanoTime();
+        try {
+            lot.exitVehicle(vehicleNumber);
+        } catch (VehicleNotFoundException e) {
+            throw new IllegalStateException("Simulated vehicle vanished: " + vehicleNumber, e);
+        }
+        exitLatency.record(System.nanoTime() - begin);
+    }
+    
+    // Hourly occupancy sample, for the hour-of-day curve, the peaks and the CSV
+    private void sample() {
+        LocalDateTime now = clock.now();
+        StringBuilder row = (occupancyCsv != null) ? new StringBuilder(now.toString()) : null;
+        for (VehicleCategory category : VehicleCategory.values()) {
+            int c = category.ordinal();
+            double occupancy = (double) lot.getOccupiedSlots(category) / Math.max(1, lot.getTotalSlots(category));
+            occupancyByHour[c][now.getHour()] += occupancy;
+            peakOccupancy[c] = Math.max(peakOccupancy[c], occupancy);
+            if (row != null) {
+                row.append(String.format(",%.3f", occupancy));
+            }
+        }
+        if (row != null) {
+            occupancyCsv.println(row);
+        }
+        samples++;
+        schedule(clock.millis() + HOUR_MILLIS, EventType.SAMPLE, null, null);
+    }
+    
+    // Next arrival of a non-homogeneous Poisson process, by thinning: draw at the
+    // peak rate and keep each candidate with probability rate(t) / peak rate
+    private void scheduleArrival(VehicleCategory category, long from) {
+        double peakPerMilli = ratesPerHour[category.ordinal()] * TrafficProfile.MAX_MULTIPLIER / HOUR_MILLIS;
+        if (peakPerMilli <= 0) {
+            return;
+        }
+        long time = from;
+        while (true) {
+            time += Math.max(1, (long) (-Math.log(1 - random.nextDouble()) / peakPerMilli));
+            LocalDateTime at = LocalDateTime.ofEpochSecond(time / 1000, 0, ZoneOffset.UTC); // VirtualClock is UTC
+            if (random.nextDouble() * TrafficProfile.MAX_MULTIPLIER < profile.multiplier(at)) {
+                schedule(time, EventType.ARRIVAL, category, null);
+                return;
+            }
+        }
+    }
+    
+    private void schedule(long time, EventType type, VehicleCategory category, String vehicleNumber) {
+        queue.add(new SimEvent(time, sequence++, type, category, vehicleNumber));
+    }
+    
+    private void report(int days, long events, long wallNanos) {
+        double wallSeconds = wallNanos / 1e9;
+        System.out.printf("Simulated %d days (%s profile) in %.1f s - %d events, %.0f events/s, %.0fx real time%n",
+            days, profile.name().toLowerCase().replace('_', '-'), wallSeconds, events, events / wallSeconds,
+            days * 86400.0 / wallSeconds);
+        System.out.printf("Lot: %d car, %d bike, %d truck slots; revenue ₹%s%n",
+            lot.getTotalSlots(VehicleCategory.CAR), lot.getTotalSlots(VehicleCategory.BIKE),
+            lot.getTotalSlots(VehicleCategory.TRUCK), Money.format(lot.getTotalRevenuePaise()));
+        System.out.println();
+        System.out.println("type   arrivals  rejected  rejectRate  peakOccupancy");
+        for (VehicleCategory category : VehicleCategory.values()) {
+            int c = category.ordinal();
+            System.out.printf("%-6s %8d  %8d  %9.2f%%  %12.1f%%%n", category.name().toLowerCase(), arrivals[c], rejected[c],
+                100.0 * rejected[c] / Math.max(1, arrivals[c]), 100 * peakOccupancy[c]);
+        }
+        System.out.println();
+        System.out.println("op     count     p50(ns)   p90(ns)   p99(ns)   p99.9(ns)");
+        printLatency("park", parkLatency);
+        printLatency("exit", exitLatency);
+        System.out.println();
+        System.out.println("Average occupancy by hour of day (car/bike/truck %)");
+        long perHour = Math.max(1, samples / 24);
+        for (int hour = 0; hour < 24; hour++) {
+            System.out.printf("%02d:00  %5.1f  %5.1f  %5.1f%n", hour,
+                100 * occupancyByHour[0][hour] / perHour, 100 * occupancyByHour[1][hour] / perHour,
+                100 * occupancyByHour[2][hour] / perHour);
+        }
+    }
+    
+    private static void printLatency(String name, LatencyHistogram histogram) {
+        System.out.printf("%-6s %8d  %8d  %8d  %8d  %10d%n", name, histogram.getCount(), histogram.percentile(50),
+            histogram.percentile(90), histogram.percentile(99), histogram.percentile(99.9));
+    }
+}
@@ -0,0 +1,387 @@
+package parkinglot.cli;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.time.*;
+
+import parkinglot.core.Bike;
+import parkinglot.core.Car;
+import parkinglot.core.EventJournal;
+import parkinglot.core.HistoryPage;
+import parkinglot.core.HistoryQuery;
+import parkinglot.core.InvalidVehicleException;
+import parkinglot.core.LotEvent;
+import parkinglot.core.LotEventBus;
+import parkinglot.core.ParkingFullException;
+import parkinglot.core.ParkingLotSystem;
+import parkinglot.core.SlotNotAvailableException;
+import parkinglot.core.TicketRenderer;
+import parkinglot.core.Truck;
+import parkinglot.core.Vehicle;
+import parkinglot.core.VehicleCategory;
+import parkinglot.core.VehicleNotFoundException;
+import parkinglot.persistence.DatabaseEntry;
+import parkinglot.persistence.DatabaseProfile;
+import parkinglot.persistence.ParkingDatabaseManager;
+
+public class ParkingLotManagementSystem {
+    // Event journal directory, override with -Dparking.journal=<dir>
+    private static final String JOURNAL_DIRECTORY = System.getProperty("parking.journal", "parking-journal");
+    private static final long SNAPSHOT_MINUTES = 5;
+    private static final int HISTORY_PAGE_SIZE = 20;
+    
+    public static void main(String[] args) {
+        Scanner scanner = new Scanner(System.in);
+        ParkingLotSystem parkingSystem = new ParkingLotSystem(50, 100, 20);
+        ParkingDatabaseManager db = new ParkingDatabaseManager();
+        
+        displayWelcome();
+        
+        // Rebuild the lot from the snapshot and journal of earlier runs
+        EventJournal journal = null;
+        try {
+            journal = new EventJournal(Paths.get(JOURNAL_DIRECTORY));
+            long events = parkingSystem.recover(journal);
+            System.out.println("✓ Restored " + parkingSystem.getCurrentlyParked() + " parked vehicles, replayed "
+                + events + " journal events");
+            journal.scheduleSnapshots(parkingSystem, SNAPSHOT_MINUTES, TimeUnit.MINUTES);
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("✗ Journal not replayed, running without it: " + e.getMessage());
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+            parkingSystem = new ParkingLotSystem(50, 100, 20);
+        }
+        
+        // Tickets, receipts and database writes follow the lot's events on their own threads
+        LotEventBus events = parkingSystem.getEvents();
+        events.subscribe("parking-console", 1024, ParkingLotManagementSystem::printEvent);
+        events.subscribe("parking-db-events", 10000, event -> {
+            if (!db.isConnected()) {
+                return;
+            }
+            if (event.getType() == LotEvent.Type.PARKED) {
+                db.queueVehicleEntry(event.getVehicle(), event.getTicket().getSlotNumber());
+            } else if (event.getType() == LotEvent.Type.EXITED) {
+                db.queueVehicleExit(event.getRecord());
+            }
+        });
+        
+        boolean running = true;
+        
+        while (running) {
+            displayMenu();
+            
+            try {
+                System.out.print("Enter your choice: ");
+                int choice = scanner.nextInt();
+                scanner.nextLine();
+                
+                switch (choice) {
+                    case 1:
+                        parkNewVehicle(scanner, parkingSystem);
+                        break;
+                        
+                    case 2:
+                        exitVehicleFromParking(scanner, parkingSystem);
+                        break;
+                        
+                    case 3:
+                        parkingSystem.displayAvailableSlots();
+                        break;
+                        
+                    case 4:
+                        parkingSystem.displayParkedVehicles();
+                        break;
+                        
+                    case 5:
+                        searchVehicleInParking(scanner, parkingSystem);
+                        break;
+                        
+                    case 6:
+                        viewParkingHistory(scanner, parkingSystem);
+                        break;
+                        
+                    case 7:
+                        parkingSystem.displayStatistics();
+                        break;
+                        
+                    case 8:
+                        databaseOperations(scanner, parkingSystem, db);
+                        break;
+                        
+                    case 9:
+                        demonstrateGC();
+                        break;
+                        
+                    case 0:
+                        System.out.println("\n✓ Thank you for using Parking System!");
+                        System.out.println("Drive safely!");
+                        running = false;
+                        break;
+                        
+                    default:
+                        System.out.println("✗ Invalid choice!");
+                }
+                
+            } catch (InputMismatchException e) {
+                System.out.println("✗ Invalid input! Please enter a number.");
+                scanner.nextLine();
+            } catch (NoSuchElementException e) {
+                running = false; // input closed
+            } catch (RuntimeException e) {
+                // Last line of defence - one failed operation must not end the session
+                System.out.println("✗ Operation failed: " + e);
+            }
+            
+            if (running) {
+                System.out.println("\nPress Enter to continue...");
+                scanner.nextLine();
+            }
+        }
+        
+        scanner.close();
+        events.close();
+        db.disconnect();
+        if (journal != null) {
+            // Snapshot on the way out so the next start reads no journal tail
+            try {
+                journal.snapshot(parkingSystem);
+            } catch (IOException e) {
+                System.out.println("✗ Journal snapshot failed: " + e.getMessage());
+            }
+            journal.close();
+        }
+    }
+    
+    // Console subscriber - the ticket on park, the receipt on exit
+    private static void printEvent(LotEvent event) {
+        switch (event.getType()) {
+            case PARKED:
+                TicketRenderer.local().parked(event.getTicket()).printTo(System.out);
+                break;
+            case EXITED:
+                TicketRenderer.local().receipt(event.getVehicle(), event.getRecord().getCharges()).printTo(System.out);
+                break;
+            case HISTORY_SPILL_FAILED:
+                System.out.println("✗ History spill failed, keeping records in memory: " + event.getFailure().getMessage());
+                break;
+        }
+    }
+    
+    private static void displayWelcome() {
+        System.out.println("\n╔═══════════════════════════════════════════╗");
+        System.out.println("║   PARKING LOT MANAGEMENT SYSTEM           ║");
+        System.out.println("╚═══════════════════════════════════════════╝");
+    }
+    
+    private static void displayMenu() {
+        System.out.println("\n--- MAIN MENU ---");
+        System.out.println("1. Park a new vehicle");
+        System.out.println("2. Exit a vehicle");
+        System.out.println("3. View available slots");
+        System.out.println("4. View parked vehicles");
+        System.out.println("5. Search for a vehicle");
+        System.out.println("6. View parking history");
+        System.out.println("7. View statistics");
+        System.out.println("8. Database Operations");
+        System.out.println("9. Demonstrate Garbage Collection");
+        System.out.println("0. Exit Application");
+    }
+    
+    private static void parkNewVehicle(Scanner scanner, ParkingLotSystem parkingSystem) {
+        try {
+            System.out.println("\n--- PARK VEHICLE ---");
+            System.out.print("Enter vehicle type (car/bike/truck): ");
+            String type = scanner.nextLine().toLowerCase();
+            
+            System.out.print("Enter vehicle number: ");
+            String vehicleNumber = scanner.nextLine().toUpperCase();
+            
+            System.out.print("Enter owner's name: ");
+            String ownerName = scanner.nextLine();
+            
+            System.out.print("Enter owner's phone number: ");
+            String phoneNumber = scanner.nextLine();
+            
+            Vehicle newVehicle = null;
+            
+            switch (type) {
+                case "car":
+                    System.out.print("Enter car model: ");
+                    String carModel = scanner.nextLine();
+                    newVehicle = new Car(vehicleNumber, ownerName, phoneNumber, carModel);
+                    break;
+                case "bike":
+                    System.out.print("Enter bike model: ");
+                    String bikeModel = scanner.nextLine();
+                    newVehicle = new Bike(vehicleNumber, ownerName, phoneNumber, bikeModel);
+                    break;
+                case "truck":
+                    System.out.print("Enter load capacity (tons): ");
+                    int loadCapacity = scanner.nextInt();
+                    scanner.nextLine();
+                    newVehicle = new Truck(vehicleNumber, ownerName, phoneNumber, loadCapacity);
+                    break;
+                default:
+                    throw new InvalidVehicleException("Invalid vehicle type entered.");
+            }
+            
+            parkingSystem.parkVehicle(newVehicle);
+            parkingSystem.getEvents().awaitDelivered();
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            // Journal append failed (I/O or record too large) - the park was undone
+            System.out.println("✗ Vehicle not parked, journal write failed: " + e.getMessage());
+        } catch (InvalidVehicleException | ParkingFullException | SlotNotAvailableException | InputMismatchException e) {
+            System.out.println("✗ Error: " + e.getMessage());
+            if (e instanceof InputMismatchException) {
+                scanner.nextLine();
+            }
+        }
+    }
+    
+    private static void exitVehicleFromParking(Scanner scanner, ParkingLotSystem parkingSystem) {
+        System.out.println("\n--- EXIT VEHICLE ---");
+        System.out.print("Enter vehicle number to exit: ");
+        String vehicleNumber = scanner.nextLine();
+        
+        try {
+            parkingSystem.exitVehicle(vehicleNumber);
+            parkingSystem.getEvents().awaitDelivered();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            // Journal append failed - the vehicle is still parked
+            System.out.println("✗ Vehicle not exited, journal write failed: " + e.getMessage());
+        } catch (VehicleNotFoundException e) {
+            System.out.println("✗ Error: " + e.getMessage());
+        }
+    }
+    
+    private static void viewParkingHistory(Scanner scanner, ParkingLotSystem parkingSystem) {
+        System.out.println("\n--- PARKING HISTORY ---");
+        HistoryQuery query = HistoryQuery.all();
+        
+        System.out.print("Vehicle number (blank for all): ");
+        String vehicleNumber = scanner.nextLine().trim();
+        if (!vehicleNumber.isEmpty()) {
+            query = query.withVehicleNumber(vehicleNumber);
+        }
+        
+        System.out.print("Vehicle type (car/bike/truck, blank for all): ");
+        String type = scanner.nextLine().trim();
+        if (!type.isEmpty()) {
+            try {
+                query = query.withCategory(VehicleCategory.valueOf(type.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                System.out.println("✗ Invalid vehicle type entered.");
+                return;
+            }
+        }
+        
+        System.out.print("Exited on or after date (yyyy-MM-dd, blank for any): ");
+        String fromDate = scanner.nextLine().trim();
+        System.out.print("Exited before date (yyyy-MM-dd, blank for any): ");
+        String toDate = scanner.nextLine().trim();
+        try {
+            query = query.exitedBetween(
+                fromDate.isEmpty() ? null : LocalDate.parse(fromDate).atStartOfDay(),
+                toDate.isEmpty() ? null : LocalDate.parse(toDate).atStartOfDay());
+        } catch (DateTimeException e) {
+            System.out.println("✗ Invalid date: " + e.getMessage());
+            return;
+        }
+        
+        long cursor = 0;
+        while (true) {
+            HistoryPage page = parkingSystem.displayParkingHistory(query, cursor, HISTORY_PAGE_SIZE);
+            if (!page.hasMore()) {
+                return;
+            }
+            System.out.print("Enter for the next page, q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            cursor = page.getNextCursor();
+        }
+    }
+    
+    private static void searchVehicleInParking(Scanner scanner, ParkingLotSystem parkingSystem) {
+        System.out.println("\n--- SEARCH VEHICLE ---");
+        System.out.print("Enter vehicle number to search: ");
+        String vehicleNumber = scanner.nextLine();
+        
+        try {
+            parkingSystem.searchVehicle(vehicleNumber);
+        } catch (VehicleNotFoundException e) {
+            System.out.println("✗ Error: " + e.getMessage());
+        }
+    }
+    
+    private static void databaseOperations(Scanner scanner, ParkingLotSystem parkingSystem, ParkingDatabaseManager db) {
+        System.out.println("\n--- DATABASE OPERATIONS ---");
+        System.out.println("1. Connect to Database");
+        System.out.println("2. Display records, 20 per page");
+        System.out.println("3. Disconnect from Database");
+        System.out.println("4. Connect to embedded Database (H2, no MySQL needed)");
+        System.out.print("Enter choice: ");
+        
+        try {
+            int dbChoice = scanner.nextInt();
+            scanner.nextLine();
+            
+            switch (dbChoice) {
+                case 1:
+                    db.connect();
+                    if (db.isConnected()) {
+                        db.enableWriteBehind(10000, 100, 50);
+                    }
+                    break;
+                case 2:
+                    DatabaseEntry last = db.displayDatabaseRecords(null, HISTORY_PAGE_SIZE);
+                    while (last != null) {
+                        System.out.print("Enter for the next page, q to stop: ");
+                        if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                            break;
+                        }
+                        last = db.displayDatabaseRecords(last, HISTORY_PAGE_SIZE);
+                    }
+                    break;
+                case 3:
+                    db.disconnect();
+                    break;
+                case 4:
+                    db.connect(DatabaseProfile.EMBEDDED);
+                    if (db.isConnected()) {
+                        db.enableWriteBehind(10000, 100, 50);
+                    }
+                    break;
+                default:
+                    System.out.println("✗ Invalid database choice.");
+            }
+        } catch (InputMismatchException e) {
+            System.out.println("✗ Invalid input! Please enter a number.");
+            scanner.nextLine();
+        }
+    }
+    
+    private static void demonstrateGC() {
+        System.out.println("\n--- GARBAGE COLLECTION DEMO ---");
+        System.out.println("Creating a large number of temporary objects...");
+        
+        for (int i = 0; i < 10000; i++) {
+            new String("Garbage" + i);
+        }
+        
+        System.out.println("Objects created. Requesting Garbage Collection...");
+        System.gc();
+        
+        System.out.println("Garbage collection requested. Some memory may have been freed.");
+    }
+}
@@ -0,0 +1,47 @@
+package parkinglot.core;
+
+// Bike class
+public class Bike extends Vehicle {
+    private String bikeModel;
+    private static final long BASE_RATE = Money.rupees(10); // per hour
+    private static final long ADDITIONAL_RATE = Money.rupees(5); // After 2 hours
+    
+    public Bike(String vehicleNumber, String ownerName, String phoneNumber, String bikeModel) {
+        super(vehicleNumber, ownerName, phoneNumber);
+        this.bikeModel = bikeModel;
+    }
+    
+    @Override
+    public long calculateParkingCharges() {
+        long minutes = getParkingDuration();
+        long hours = (minutes + 59) / 60; // started hours
+        
+        if (hours <= 2) {
+            return hours * BASE_RATE;
+        } else {
+            return (2 * BASE_RATE) + ((hours - 2) * ADDITIONAL_RATE);
+        }
+    }
+    
+    public String getBikeModel() { return bikeModel; }
+    
+    @Override
+    public String getVehicleType() {
+        return "Bike (" + bikeModel + ")";
+    }
+    
+    @Override
+    void renderVehicleType(TicketRenderer out) {
+        out.text("Bike (").text(bikeModel).text(")");
+    }
+    
+    @Override
+    public VehicleCategory getCategory() {
+        return VehicleCategory.BIKE;
+    }
+    
+    @Override
+    public int getRequiredSlots() {
+        return 1; // Bike takes 1 slot
+    }
+}
@@ -0,0 +1,44 @@
+package parkinglot.core;
+
+import java.time.*;
+
+// System time read by one daemon thread every RESOLUTION_MILLIS and cached, so
+// now() is a volatile read - no clock call, zone lookup or allocation per gate
+// event. Times are up to RESOLUTION_MILLIS behind.
+final class CachedClock implements ParkingClock, Runnable {
+    static final long RESOLUTION_MILLIS = 10;
+    static final CachedClock SYSTEM = new CachedClock(ZoneId.systemDefault());
+    
+    private final ZoneId zone;
+    private volatile long millis;
+    private volatile LocalDateTime now;
+    
+    private CachedClock(ZoneId zone) {
+        this.zone = zone;
+        tick();
+        Thread ticker = new Thread(this, "parking-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+    
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(RESOLUTION_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            tick();
+        }
+    }
+    
+    private void tick() {
+        long current = System.currentTimeMillis();
+        now = LocalDateTime.ofInstant(Instant.ofEpochMilli(current), zone);
+        millis = current;
+    }
+    
+    public long millis() { return millis; }
+    public LocalDateTime now() { return now; }
+}
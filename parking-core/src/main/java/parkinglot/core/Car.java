@@ -0,0 +1,47 @@
+package parkinglot.core;
+
+// Car class
+public class Car extends Vehicle {
+    private String carModel;
+    private static final long BASE_RATE = Money.rupees(20); // per hour
+    private static final long ADDITIONAL_RATE = Money.rupees(10); // After 2 hours
+    
+    public Car(String vehicleNumber, String ownerName, String phoneNumber, String carModel) {
+        super(vehicleNumber, ownerName, phoneNumber);
+        this.carModel = carModel;
+    }
+    
+    @Override
+    public long calculateParkingCharges() {
+        long minutes = getParkingDuration();
+        long hours = (minutes + 59) / 60; // started hours
+        
+        if (hours <= 2) {
+            return hours * BASE_RATE;
+        } else {
+            return (2 * BASE_RATE) + ((hours - 2) * ADDITIONAL_RATE);
+        }
+    }
+    
+    public String getCarModel() { return carModel; }
+    
+    @Override
+    public String getVehicleType() {
+        return "Car (" + carModel + ")";
+    }
+    
+    @Override
+    void renderVehicleType(TicketRenderer out) {
+        out.text("Car (").text(carModel).text(")");
+    }
+    
+    @Override
+    public VehicleCategory getCategory() {
+        return VehicleCategory.CAR;
+    }
+    
+    @Override
+    public int getRequiredSlots() {
+        return 1; // Car takes 1 slot
+    }
+}
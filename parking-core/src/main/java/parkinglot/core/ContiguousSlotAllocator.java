@@ -0,0 +1,147 @@
+package parkinglot.core;
+
+// Contiguous-run allocator - a segment tree over the pool where every node keeps
+// its free prefix, free suffix and longest free run, so the lowest run of k
+// adjacent free slots is found in O(log n) and freed runs merge with their
+// neighbours automatically. Guarded by its own monitor; used for vehicles that
+// need more than one slot.
+class ContiguousSlotAllocator implements SlotAllocator {
+    private final int capacity;
+    private final int leaves; // power of two >= capacity, leaves past capacity stay occupied
+    private final int[] prefix;
+    private final int[] suffix;
+    private final int[] longest;
+    private final int[] runs;
+    private volatile int freeCount;
+    
+    public ContiguousSlotAllocator(int capacity) {
+        this.capacity = capacity;
+        this.leaves = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.prefix = new int[2 * leaves];
+        this.suffix = new int[2 * leaves];
+        this.longest = new int[2 * leaves];
+        this.runs = new int[2 * leaves];
+        
+        // Every slot starts free
+        for (int i = 0; i < capacity; i++) {
+            setLeaf(leaves + i, true);
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            pull(node, childLength(node));
+        }
+        this.freeCount = capacity;
+    }
+    
+    @Override
+    public synchronized int allocate(int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Run length must be positive: " + slots);
+        }
+        if (longest[1] < slots) {
+            return -1;
+        }
+        
+        // Walk down to the leftmost run: left child, then the run crossing the middle, then right
+        int node = 1;
+        int first = 0;
+        int length = leaves;
+        while (length > 1) {
+            int half = length >>> 1;
+            int left = 2 * node;
+            if (longest[left] >= slots) {
+                node = left;
+            } else if (suffix[left] + prefix[left + 1] >= slots) {
+                first += half - suffix[left];
+                break;
+            } else {
+                node = left + 1;
+                first += half;
+            }
+            length = half;
+        }
+        
+        for (int i = first; i < first + slots; i++) {
+            update(i, false);
+        }
+        freeCount -= slots;
+        return first;
+    }
+    
+    @Override
+    public synchronized boolean claim(int firstIndex, int slots) {
+        if (firstIndex < 0 || slots < 1 || firstIndex + slots > capacity) {
+            return false;
+        }
+        for (int i = firstIndex; i < firstIndex + slots; i++) {
+            if (!isFree(i)) {
+                return false;
+            }
+        }
+        for (int i = firstIndex; i < firstIndex + slots; i++) {
+            update(i, false);
+        }
+        freeCount -= slots;
+        return true;
+    }
+    
+    @Override
+    public synchronized void release(int firstIndex, int slots) {
+        if (firstIndex < 0 || slots < 1 || firstIndex + slots > capacity) {
+            throw new IllegalArgumentException("Run out of range: " + firstIndex + "+" + slots);
+        }
+        for (int i = firstIndex; i < firstIndex + slots; i++) {
+            if (isFree(i)) {
+                throw new IllegalStateException("Slot index already free: " + i);
+            }
+        }
+        for (int i = firstIndex; i < firstIndex + slots; i++) {
+            update(i, true);
+        }
+        freeCount += slots;
+    }
+    
+    @Override
+    public synchronized boolean isFree(int index) {
+        return longest[leaves + index] == 1;
+    }
+    
+    @Override
+    public synchronized int getLargestFreeRun() { return longest[1]; }
+    
+    @Override
+    public synchronized int getFreeRunCount() { return runs[1]; }
+    
+    public int getFreeCount() { return freeCount; }
+    public int getCapacity() { return capacity; }
+    
+    private void update(int index, boolean free) {
+        int node = leaves + index;
+        setLeaf(node, free);
+        for (int childLength = 1; node > 1; childLength <<= 1) {
+            node >>>= 1;
+            pull(node, childLength);
+        }
+    }
+    
+    private void setLeaf(int node, boolean free) {
+        int value = free ? 1 : 0;
+        prefix[node] = value;
+        suffix[node] = value;
+        longest[node] = value;
+        runs[node] = value;
+    }
+    
+    // Slots covered by each child of an internal node
+    private int childLength(int node) {
+        return leaves / Integer.highestOneBit(node) / 2;
+    }
+    
+    private void pull(int node, int childLength) {
+        int left = 2 * node;
+        int right = left + 1;
+        prefix[node] = (prefix[left] == childLength) ? childLength + prefix[right] : prefix[left];
+        suffix[node] = (suffix[right] == childLength) ? childLength + suffix[left] : suffix[right];
+        longest[node] = Math.max(Math.max(longest[left], longest[right]), suffix[left] + prefix[right]);
+        runs[node] = runs[left] + runs[right] - ((suffix[left] > 0 && prefix[right] > 0) ? 1 : 0);
+    }
+}
@@ -0,0 +1,485 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
+import java.time.*;
+
+// Append-only journal of park and exit events in memory-mapped segment files, so a
+// restarted lot rebuilds its state by replaying them. Each record is
+//     [int length][int crc32c][byte type][payload]
+// where length and the CRC cover type and payload. A zero length ends a segment;
+// a record that does not fit rolls the journal over to the next segment file.
+// A record is in the page cache once appended, so it survives a process crash;
+// sync() forces it to disk as well. A torn record at the tail of the last segment
+// (a crash mid-append) is dropped on open; a bad record anywhere else is corruption,
+// and opening or replaying the journal fails rather than skip it.
+// snapshot() folds sealed segments into a LotSnapshot and deletes them, so a
+// restart reads the latest snapshot plus the segments written after it.
+public final class EventJournal implements AutoCloseable {
+    static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    private static final int MAGIC = 0x504C4A31; // "PLJ1"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8; // magic, version
+    private static final int RECORD_HEADER_BYTES = 8; // length, crc
+    private static final int MAX_RECORD_BYTES = 4096;
+    private static final byte PARK = 1;
+    private static final byte EXIT = 2;
+    private static final VehicleCategory[] CATEGORIES = VehicleCategory.values();
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Path> segments = new ArrayList<>(); // oldest first, last one is active
+    private int lastSequence;
+    private MappedByteBuffer active; // guarded by this, position = next append
+    private boolean closed;
+    private Path latestSnapshot; // guarded by this, null until the first snapshot
+    private int snapshotSequence; // last segment folded into latestSnapshot
+    private final Object snapshotLock = new Object(); // one snapshot at a time
+    private ScheduledExecutorService snapshotter;
+    
+    // Records are encoded and checksummed on the gate's own thread; only the copy is serialized
+    private final ThreadLocal<ByteBuffer> scratch =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(RECORD_HEADER_BYTES + MAX_RECORD_BYTES));
+    private final ThreadLocal<CRC32C> checksums = ThreadLocal.withInitial(CRC32C::new);
+    
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+    
+    public EventJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        Collections.sort(segments); // zero-padded sequence numbers sort by name
+        
+        // Latest snapshot wins; older ones and the segments it covers are leftovers of a crash mid-compaction
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "snapshot-*")) {
+            for (Path file : files) {
+                if (file.toString().endsWith(".snap")) {
+                    snapshots.add(file);
+                } else {
+                    Files.delete(file); // unfinished snapshot
+                }
+            }
+        }
+        Collections.sort(snapshots);
+        if (!snapshots.isEmpty()) {
+            latestSnapshot = snapshots.remove(snapshots.size() - 1);
+            snapshotSequence = sequenceOf(latestSnapshot);
+            for (Path stale : snapshots) {
+                Files.delete(stale);
+            }
+            compact(snapshotSequence);
+        }
+        
+        if (segments.isEmpty()) {
+            active = createSegment(snapshotSequence + 1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            lastSequence = sequenceOf(last);
+            active = mapSegment(last);
+            int end = scan(active, last, null);
+            if (!isCleanEnd(active, end)) {
+                if (!isTornTail(active, end)) {
+                    throw new IOException("Corrupt journal record in " + last + " at offset " + end);
+                }
+                // Torn tail - clear it so the next append starts from intact records
+                for (int i = end; i < active.limit(); i++) {
+                    active.put(i, (byte) 0);
+                }
+            }
+            active.position(end);
+        }
+    }
+    
+    public void appendPark(Vehicle vehicle, ParkingTicket ticket) {
+        ByteBuffer record = begin(PARK);
+        try {
+            putString(record, ticket.getTicketId());
+            putTime(record, ticket.getIssueTime());
+            putTime(record, vehicle.getEntryTime());
+            record.put((byte) vehicle.getCategory().ordinal());
+            record.putInt(ticket.getSlotNumber());
+            record.put((byte) ticket.getSlotCount());
+            putString(record, vehicle.getVehicleNumber());
+            putString(record, vehicle.getOwnerName());
+            putString(record, vehicle.getPhoneNumber());
+            switch (vehicle.getCategory()) {
+                case CAR: putString(record, ((Car) vehicle).getCarModel()); break;
+                case BIKE: putString(record, ((Bike) vehicle).getBikeModel()); break;
+                case TRUCK: record.putInt(((Truck) vehicle).getLoadCapacity()); break;
+            }
+        } catch (java.nio.BufferOverflowException e) {
+            throw new IllegalArgumentException("Journal record too large for " + vehicle.getVehicleNumber());
+        }
+        commit(record);
+    }
+    
+    public void appendExit(ParkingRecord parkingRecord) {
+        ByteBuffer record = begin(EXIT);
+        try {
+            putString(record, parkingRecord.getVehicleNumber());
+            putTime(record, parkingRecord.getExitTime());
+            record.putLong(parkingRecord.getCharges());
+            putString(record, parkingRecord.getRecordId());
+        } catch (java.nio.BufferOverflowException e) {
+            throw new IllegalArgumentException("Journal record too large for " + parkingRecord.getVehicleNumber());
+        }
+        commit(record);
+    }
+    
+    private ByteBuffer begin(byte type) {
+        ByteBuffer record = scratch.get();
+        record.clear();
+        record.position(RECORD_HEADER_BYTES);
+        record.put(type);
+        return record;
+    }
+    
+    private void commit(ByteBuffer record) {
+        record.flip();
+        int length = record.limit() - RECORD_HEADER_BYTES;
+        CRC32C checksum = checksums.get();
+        checksum.reset();
+        checksum.update(record.array(), RECORD_HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) checksum.getValue());
+        
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (active.remaining() < record.limit()) {
+                roll();
+            }
+            active.put(record);
+        }
+    }
+    
+    // Load the latest snapshot and replay every intact record after it into the system;
+    // returns the number of journal events replayed
+    public synchronized long replay(ParkingLotSystem target) throws IOException {
+        if (latestSnapshot != null) {
+            LotSnapshot.load(latestSnapshot, target);
+        }
+        long events = 0;
+        byte[] strings = new byte[Short.MAX_VALUE];
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            boolean last = (i == segments.size() - 1);
+            events += replaySegment(last ? active.duplicate() : mapForRead(file), file, !last, target, strings);
+        }
+        return events;
+    }
+    
+    private long replaySegment(ByteBuffer segment, Path file, boolean sealed, ParkingLotSystem target,
+                               byte[] strings) throws IOException {
+        long[] count = new long[1];
+        int end = scan(segment, file, record -> {
+            apply(record, target, strings);
+            count[0]++;
+        });
+        if (sealed && !isCleanEnd(segment, end)) {
+            throw new IOException("Corrupt journal record in " + file + " at offset " + end);
+        }
+        return count[0];
+    }
+    
+    // Fold everything journaled so far into a new snapshot, then delete the segments it covers.
+    // Gates keep running: sealing the active segment is the only step under the journal's
+    // lock, and the snapshot is built by replaying sealed segments into a private copy of
+    // the lot, so it is a consistent point-in-time view. Returns the events folded in.
+    public long snapshot(ParkingLotSystem lot) throws IOException {
+        synchronized (snapshotLock) {
+            Path previous;
+            int covered;
+            List<Path> sealed = new ArrayList<>();
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Journal is closed");
+                }
+                if (active.position() > SEGMENT_HEADER_BYTES) {
+                    roll();
+                }
+                previous = latestSnapshot;
+                covered = lastSequence - 1;
+                for (Path file : segments) {
+                    int sequence = sequenceOf(file);
+                    if (sequence > snapshotSequence && sequence <= covered) {
+                        sealed.add(file);
+                    }
+                }
+            }
+            if (sealed.isEmpty()) {
+                return 0;
+            }
+            
+            ParkingLotSystem shadow = lot.emptyCopy(directory);
+            if (previous != null) {
+                LotSnapshot.load(previous, shadow);
+            }
+            long events = 0;
+            byte[] strings = new byte[Short.MAX_VALUE];
+            for (Path file : sealed) {
+                events += replaySegment(mapForRead(file), file, true, shadow, strings);
+            }
+            Path snapshot = LotSnapshot.write(directory, covered, shadow);
+            
+            synchronized (this) {
+                latestSnapshot = snapshot;
+                snapshotSequence = covered;
+                compact(covered);
+            }
+            if (previous != null) {
+                Files.deleteIfExists(previous);
+            }
+            return events;
+        }
+    }
+    
+    // Take a snapshot every period on a daemon thread, until close()
+    public synchronized void scheduleSnapshots(ParkingLotSystem lot, long period, TimeUnit unit) {
+        if (snapshotter != null) {
+            snapshotter.shutdownNow();
+        }
+        snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "parking-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(lot);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("✗ Journal snapshot failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+    
+    // Delete sealed segments up to and including the given sequence
+    private void compact(int covered) throws IOException {
+        Iterator<Path> files = segments.iterator();
+        while (files.hasNext()) {
+            Path file = files.next();
+            if (sequenceOf(file) <= covered) {
+                Files.deleteIfExists(file);
+                files.remove();
+            }
+        }
+    }
+    
+    // journal-00000042.log and snapshot-00000042.snap -> 42
+    private static int sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        int dash = name.indexOf('-');
+        return Integer.parseInt(name.substring(dash + 1, name.indexOf('.', dash)));
+    }
+    
+    private interface RecordVisitor {
+        void visit(ByteBuffer record) throws IOException;
+    }
+    
+    // Walk the intact records of a segment, handing each body to the visitor;
+    // returns the offset just past the last one
+    private int scan(ByteBuffer segment, Path file, RecordVisitor visitor) throws IOException {
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " parking journal: " + file);
+        }
+        ByteBuffer record = segment.duplicate();
+        int position = SEGMENT_HEADER_BYTES;
+        while (isIntactRecord(segment, record, position)) {
+            if (visitor != null) {
+                record.position(position + RECORD_HEADER_BYTES);
+                visitor.visit(record);
+            }
+            position = record.limit();
+        }
+        return position;
+    }
+    
+    // True when a record with a plausible length and a matching checksum starts at
+    // position; record, a view of the segment, is left limited to its body
+    private boolean isIntactRecord(ByteBuffer segment, ByteBuffer record, int position) {
+        if (position + RECORD_HEADER_BYTES > segment.limit()) {
+            return false;
+        }
+        int length = segment.getInt(position);
+        int bodyStart = position + RECORD_HEADER_BYTES;
+        if (length <= 0 || length > MAX_RECORD_BYTES || bodyStart + length > segment.limit()) {
+            return false;
+        }
+        record.limit(segment.limit()).position(bodyStart);
+        record.limit(bodyStart + length);
+        CRC32C checksum = checksums.get();
+        checksum.reset();
+        checksum.update(record);
+        return (int) checksum.getValue() == segment.getInt(position + 4);
+    }
+    
+    // True when records stopped at the end marker rather than at a bad record
+    private static boolean isCleanEnd(ByteBuffer segment, int end) {
+        return end + RECORD_HEADER_BYTES > segment.limit() || segment.getInt(end) == 0;
+    }
+    
+    // True when the bad record at end can be a crash mid-append: no intact record
+    // follows it within the most one record can span, and nothing at all beyond that.
+    // Anything else is a damaged record with good ones behind it, which clearing the
+    // tail would silently drop.
+    private boolean isTornTail(ByteBuffer segment, int end) {
+        int span = (int) Math.min((long) end + RECORD_HEADER_BYTES + MAX_RECORD_BYTES, segment.limit());
+        ByteBuffer record = segment.duplicate();
+        for (int i = end + 1; i < span; i++) {
+            if (isIntactRecord(segment, record, i)) {
+                return false;
+            }
+        }
+        for (int i = span; i < segment.limit(); i++) {
+            if (segment.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void apply(ByteBuffer record, ParkingLotSystem target, byte[] strings) throws IOException {
+        byte type = record.get();
+        if (type == PARK) {
+            String ticketId = getString(record, strings);
+            LocalDateTime issueTime = getTime(record);
+            LocalDateTime entryTime = getTime(record);
+            VehicleCategory category = CATEGORIES[record.get()];
+            int slotNumber = record.getInt();
+            int slotCount = record.get();
+            String vehicleNumber = getString(record, strings);
+            String ownerName = getString(record, strings);
+            String phoneNumber = getString(record, strings);
+            String model = (category == VehicleCategory.TRUCK) ? null : getString(record, strings);
+            int loadCapacity = (category == VehicleCategory.TRUCK) ? record.getInt() : 0;
+            Vehicle vehicle = restoreVehicle(category, vehicleNumber, ownerName, phoneNumber, model, loadCapacity,
+                entryTime);
+            target.replayPark(vehicle,
+                ParkingTicket.restore(ticketId, vehicle.getVehicleNumber(), slotNumber, slotCount, issueTime));
+        } else if (type == EXIT) {
+            String vehicleNumber = getString(record, strings);
+            LocalDateTime exitTime = getTime(record);
+            long charges = record.getLong();
+            target.replayExit(vehicleNumber, exitTime, charges, getString(record, strings));
+        } else {
+            throw new IOException("Unknown journal record type: " + type);
+        }
+    }
+    
+    // Force appended records to disk, not just the page cache
+    public synchronized void sync() {
+        if (!closed) {
+            active.force();
+        }
+    }
+    
+    // Shared with LotSnapshot; restored vehicles do not count as processed again
+    static Vehicle restoreVehicle(VehicleCategory category, String vehicleNumber, String ownerName,
+                                  String phoneNumber, String model, int loadCapacity, LocalDateTime entryTime) {
+        Vehicle vehicle;
+        switch (category) {
+            case CAR: vehicle = new Car(vehicleNumber, ownerName, phoneNumber, model); break;
+            case BIKE: vehicle = new Bike(vehicleNumber, ownerName, phoneNumber, model); break;
+            default: vehicle = new Truck(vehicleNumber, ownerName, phoneNumber, loadCapacity); break;
+        }
+        vehicle.setEntryTime(entryTime);
+        Vehicle.discountRestored();
+        return vehicle;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            if (snapshotter != null) {
+                snapshotter.shutdownNow();
+            }
+            active.force();
+            closed = true;
+        }
+    }
+    
+    private void roll() {
+        try {
+            active.force();
+            active = createSegment(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start a new journal segment in " + directory, e);
+        }
+    }
+    
+    private MappedByteBuffer createSegment(int sequence) throws IOException {
+        Path file = directory.resolve(String.format("journal-%08d.log", sequence));
+        MappedByteBuffer segment = mapSegment(file);
+        segment.putInt(MAGIC);
+        segment.putInt(VERSION);
+        segments.add(file);
+        lastSequence = sequence;
+        return segment;
+    }
+    
+    private static MappedByteBuffer mapForRead(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+    
+    // The mapping stays valid after the channel is closed
+    private MappedByteBuffer mapSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(segmentBytes, channel.size());
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+    
+    // Times are local date-times, stored as UTC-epoch seconds and nanos so replay never depends on the zone
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(time.getNano());
+    }
+    
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+    
+    // Length-prefixed UTF-8, -1 for null
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new java.nio.BufferOverflowException();
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+    
+    // Decoded through the replaying thread's reused array
+    private static String getString(ByteBuffer buffer, byte[] strings) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        buffer.get(strings, 0, length);
+        return new String(strings, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,225 @@
+package parkinglot.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.time.*;
+
+// Columnar copy of parking history for reports. ParkingHistory appends each record
+// as it is added, so nothing is decoded again later. Rows are packed into chunks of
+// primitive arrays, 21 bytes a row instead of a ParkingRecord with its strings and
+// date-times:
+// - exit time as an int offset from the chunk's first exit
+// - stay as int seconds
+// - category as a byte
+// - interned plate id as an int
+// - charges as a long
+// Nothing is evicted; memory grows by those bytes per visit plus each distinct plate
+// once. Running per-category totals are kept as rows arrive, so all-time figures
+// need no scan. Segments adopted from a snapshot are decoded into their chunks on
+// first use. Appends run under the history's lock; scans take no lock and read the
+// rows published before they started.
+public final class HistoryColumns {
+    static final int CHUNK_ROWS = ParkingHistory.SEGMENT_RECORDS;
+    private static final VehicleCategory[] CATEGORIES = VehicleCategory.values();
+    
+    private static final class Chunk {
+        final int[] exitOffset = new int[CHUNK_ROWS]; // seconds after firstExit
+        final int[] staySeconds = new int[CHUNK_ROWS];
+        final byte[] category = new byte[CHUNK_ROWS];
+        final int[] plateId = new int[CHUNK_ROWS];
+        final long[] charges = new long[CHUNK_ROWS]; // in paise
+        long firstExit; // local time as UTC epoch seconds
+        long minExit = Long.MAX_VALUE;
+        long maxExit = Long.MIN_VALUE;
+        
+        // Consecutive exits are never 68 years apart, so the offset fits an int
+        void set(int i, ParkingRecord record, int plate) {
+            long exit = record.getExitTime().toEpochSecond(ZoneOffset.UTC);
+            if (i == 0) {
+                firstExit = exit;
+            }
+            exitOffset[i] = (int) (exit - firstExit);
+            staySeconds[i] = (int) (exit - record.getEntryTime().toEpochSecond(ZoneOffset.UTC));
+            category[i] = (byte) record.getCategory().ordinal();
+            plateId[i] = plate;
+            charges[i] = record.getCharges();
+            minExit = Math.min(minExit, exit);
+            maxExit = Math.max(maxExit, exit);
+        }
+    }
+    
+    // Visits, stay seconds and revenue per category, for all of history or a range
+    public static final class Totals {
+        private final long[] visits = new long[CATEGORIES.length];
+        private final long[] staySeconds = new long[CATEGORIES.length];
+        private final long[] revenue = new long[CATEGORIES.length]; // in paise
+        
+        public long getVisits(VehicleCategory category) { return visits[category.ordinal()]; }
+        public long getRevenuePaise(VehicleCategory category) { return revenue[category.ordinal()]; }
+        
+        public double getAverageStayMinutes(VehicleCategory category) {
+            long count = visits[category.ordinal()];
+            return (count == 0) ? 0.0 : staySeconds[category.ordinal()] / 60.0 / count;
+        }
+    }
+    
+    private final ParkingHistory history;
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile long rows; // published after the row's columns are written
+    private final ConcurrentHashMap<String, Integer> plateIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPlateId = new AtomicInteger(); // backfill interns while appends run
+    
+    // Running totals of every row appended or backfilled
+    private final LongAdder[] visits = adders();
+    private final LongAdder[] staySeconds = adders();
+    private final LongAdder[] revenue = adders();
+    
+    // Adopted rows [0, backfillRows) not decoded yet; guarded by backfillLock
+    private final Object backfillLock = new Object();
+    private volatile int backfillChunks;
+    
+    HistoryColumns(ParkingHistory history) {
+        this.history = history;
+    }
+    
+    public long size() { return rows; }
+    
+    // Under the history's lock, in history order
+    void append(ParkingRecord record) {
+        long row = rows;
+        int c = (int) (row / CHUNK_ROWS);
+        int i = (int) (row % CHUNK_ROWS);
+        Chunk[] current = chunks;
+        if (c == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            chunks = current;
+        }
+        if (i == 0) {
+            current[c] = new Chunk();
+        }
+        current[c].set(i, record, plateId(record.getVehicleNumber()));
+        count(record);
+        rows = row + 1;
+    }
+    
+    // Whole segments taken over by an empty history; decoded on first use
+    void adopt(int segmentCount) {
+        Chunk[] adopted = new Chunk[Math.max(16, Integer.highestOneBit(segmentCount) * 2)];
+        for (int c = 0; c < segmentCount; c++) {
+            adopted[c] = new Chunk();
+        }
+        chunks = adopted;
+        backfillChunks = segmentCount;
+        rows = (long) segmentCount * CHUNK_ROWS;
+    }
+    
+    // All-time totals from the running counters
+    public Totals totals() {
+        backfill();
+        Totals totals = new Totals();
+        for (int k = 0; k < CATEGORIES.length; k++) {
+            totals.visits[k] = visits[k].sum();
+            totals.staySeconds[k] = staySeconds[k].sum();
+            totals.revenue[k] = revenue[k].sum();
+        }
+        return totals;
+    }
+    
+    // Totals of exits in [from, to), in one pass; chunks wholly outside the range are skipped
+    public Totals totals(LocalDateTime from, LocalDateTime to) {
+        backfill();
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+        long n = rows;
+        Chunk[] current = chunks;
+        Totals totals = new Totals();
+        for (int c = 0; (long) c * CHUNK_ROWS < n; c++) {
+            Chunk chunk = current[c];
+            if (chunk.maxExit < fromSecond || chunk.minExit >= toSecond) {
+                continue;
+            }
+            int count = (int) Math.min(CHUNK_ROWS, n - (long) c * CHUNK_ROWS);
+            long fromOffset = fromSecond - chunk.firstExit;
+            long toOffset = toSecond - chunk.firstExit;
+            int[] exit = chunk.exitOffset;
+            int[] stay = chunk.staySeconds;
+            byte[] category = chunk.category;
+            long[] charges = chunk.charges;
+            for (int i = 0; i < count; i++) {
+                if (exit[i] >= fromOffset && exit[i] < toOffset) {
+                    totals.visits[category[i]]++;
+                    totals.staySeconds[category[i]] += stay[i];
+                    totals.revenue[category[i]] += charges[i];
+                }
+            }
+        }
+        return totals;
+    }
+    
+    public int countVisits(String vehicleNumber) {
+        backfill();
+        Integer id = plateIds.get(vehicleNumber.toUpperCase());
+        if (id == null) {
+            return 0;
+        }
+        int visitCount = 0;
+        long n = rows;
+        Chunk[] current = chunks;
+        for (int c = 0; (long) c * CHUNK_ROWS < n; c++) {
+            int count = (int) Math.min(CHUNK_ROWS, n - (long) c * CHUNK_ROWS);
+            int[] plateId = current[c].plateId;
+            for (int i = 0; i < count; i++) {
+                if (plateId[i] == id) {
+                    visitCount++;
+                }
+            }
+        }
+        return visitCount;
+    }
+    
+    // Decode adopted segments into their chunks, once. Appends only touch later
+    // chunks, and a grown chunk array still refers to these Chunk objects.
+    private void backfill() {
+        if (backfillChunks == 0) {
+            return;
+        }
+        synchronized (backfillLock) {
+            int pending = backfillChunks;
+            if (pending == 0) {
+                return;
+            }
+            Chunk[] current = chunks;
+            for (int c = 0; c < pending; c++) {
+                Chunk chunk = current[c];
+                int i = 0;
+                for (ParkingRecord record : history.read((long) c * CHUNK_ROWS, CHUNK_ROWS)) {
+                    chunk.set(i++, record, plateId(record.getVehicleNumber()));
+                    count(record);
+                }
+            }
+            backfillChunks = 0;
+        }
+    }
+    
+    private int plateId(String vehicleNumber) {
+        Integer id = plateIds.get(vehicleNumber);
+        return (id != null) ? id : plateIds.computeIfAbsent(vehicleNumber, plate -> nextPlateId.getAndIncrement());
+    }
+    
+    private void count(ParkingRecord record) {
+        int k = record.getCategory().ordinal();
+        visits[k].increment();
+        staySeconds[k].add(record.getExitTime().toEpochSecond(ZoneOffset.UTC)
+            - record.getEntryTime().toEpochSecond(ZoneOffset.UTC));
+        revenue[k].add(record.getCharges());
+    }
+    
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[CATEGORIES.length];
+        for (int k = 0; k < adders.length; k++) {
+            adders[k] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,20 @@
+package parkinglot.core;
+
+import java.util.*;
+
+// One page of a history query and the cursor to pass for the next one
+public final class HistoryPage {
+    private final List<ParkingRecord> records;
+    private final long nextCursor;
+    private final boolean hasMore;
+    
+    HistoryPage(List<ParkingRecord> records, long nextCursor, boolean hasMore) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    public List<ParkingRecord> getRecords() { return records; }
+    public long getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return hasMore; }
+}
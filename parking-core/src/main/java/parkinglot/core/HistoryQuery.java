@@ -0,0 +1,49 @@
+package parkinglot.core;
+
+import java.time.*;
+
+// Filters for a history query - exit time range [from, to), category and vehicle
+// number, each optional. Immutable; every with-method returns a narrowed copy.
+public final class HistoryQuery {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final VehicleCategory category;
+    private final String vehicleNumber;
+    
+    private HistoryQuery(LocalDateTime from, LocalDateTime to, VehicleCategory category, String vehicleNumber) {
+        this.from = from;
+        this.to = to;
+        this.category = category;
+        this.vehicleNumber = vehicleNumber;
+    }
+    
+    public static HistoryQuery all() {
+        return new HistoryQuery(null, null, null, null);
+    }
+    
+    public HistoryQuery exitedBetween(LocalDateTime from, LocalDateTime to) {
+        return new HistoryQuery(from, to, category, vehicleNumber);
+    }
+    
+    public HistoryQuery withCategory(VehicleCategory category) {
+        return new HistoryQuery(from, to, category, vehicleNumber);
+    }
+    
+    public HistoryQuery withVehicleNumber(String vehicleNumber) {
+        return new HistoryQuery(from, to, category, vehicleNumber == null ? null : vehicleNumber.toUpperCase());
+    }
+    
+    public LocalDateTime getFrom() { return from; }
+    
+    // Ends a scan early - valid only while exit times are non-decreasing (see ParkingHistory.query)
+    boolean isAfterRange(ParkingRecord record) {
+        return to != null && !record.getExitTime().isBefore(to);
+    }
+    
+    boolean matches(ParkingRecord record) {
+        return (from == null || !record.getExitTime().isBefore(from))
+            && !isAfterRange(record)
+            && (category == null || record.getCategory() == category)
+            && (vehicleNumber == null || record.getVehicleNumber().equals(vehicleNumber));
+    }
+}
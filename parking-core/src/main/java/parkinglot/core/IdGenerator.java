@@ -0,0 +1,43 @@
+package parkinglot.core;
+
+import java.util.concurrent.atomic.*;
+
+// Id generator - unique ids without a shared counter per id.
+// Each thread reserves a block of ids from one AtomicLong and numbers from its
+// block privately, so the shared cache line is touched once per BLOCK_SIZE ids.
+// A single thread still gets consecutive ids.
+class IdGenerator {
+    private static final int BLOCK_SIZE = 64;
+    
+    private final AtomicLong nextBlockStart;
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]); // {next, end}
+    
+    public IdGenerator(long firstId) {
+        this.nextBlockStart = new AtomicLong(firstId);
+    }
+    
+    public long nextId() {
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            long start = nextBlockStart.getAndAdd(BLOCK_SIZE);
+            range[0] = start;
+            range[1] = start + BLOCK_SIZE;
+        }
+        return range[0]++;
+    }
+    
+    // Every id handed out so far, by any thread, is below this
+    public long getIssuedBound() {
+        return nextBlockStart.get();
+    }
+    
+    // Never hand out id or anything below it (ids restored from a journal).
+    // Blocks other threads already hold are not revisited, so restore before ids are issued.
+    public void advancePast(long id) {
+        nextBlockStart.accumulateAndGet(id + 1, Math::max);
+        long[] range = block.get();
+        if (range[0] <= id) {
+            range[0] = range[1]; // drop the rest of this thread's block
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package parkinglot.core;
+
+public class InvalidVehicleException extends Exception {
+    public InvalidVehicleException(String message) {
+        super(message);
+    }
+}
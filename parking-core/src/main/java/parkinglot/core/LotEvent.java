@@ -0,0 +1,41 @@
+package parkinglot.core;
+
+import java.io.*;
+
+// Result of a park or exit, as published on the lot's event bus
+public final class LotEvent {
+    public enum Type { PARKED, EXITED, HISTORY_SPILL_FAILED }
+    
+    private final Type type;
+    private final Vehicle vehicle;
+    private final ParkingTicket ticket;
+    private final ParkingRecord record; // null for PARKED
+    private final IOException failure; // HISTORY_SPILL_FAILED only
+    
+    private LotEvent(Type type, Vehicle vehicle, ParkingTicket ticket, ParkingRecord record, IOException failure) {
+        this.type = type;
+        this.vehicle = vehicle;
+        this.ticket = ticket;
+        this.record = record;
+        this.failure = failure;
+    }
+    
+    static LotEvent parked(Vehicle vehicle, ParkingTicket ticket) {
+        return new LotEvent(Type.PARKED, vehicle, ticket, null, null);
+    }
+    
+    static LotEvent exited(Vehicle vehicle, ParkingTicket ticket, ParkingRecord record) {
+        return new LotEvent(Type.EXITED, vehicle, ticket, record, null);
+    }
+    
+    // History records stay in memory until a later spill succeeds
+    static LotEvent historySpillFailed(IOException failure) {
+        return new LotEvent(Type.HISTORY_SPILL_FAILED, null, null, null, failure);
+    }
+    
+    public Type getType() { return type; }
+    public Vehicle getVehicle() { return vehicle; }
+    public ParkingTicket getTicket() { return ticket; }
+    public ParkingRecord getRecord() { return record; }
+    public IOException getFailure() { return failure; }
+}
@@ -0,0 +1,116 @@
+package parkinglot.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// In-process event bus - park and exit publish here instead of printing, and each
+// subscriber (console, database, displays) consumes events on its own thread from
+// its own bounded queue, in publish order. With no subscribers publish does
+// nothing. publish() blocks while a subscriber's queue is full, so a slow
+// subscriber holds the gates back rather than losing events.
+public final class LotEventBus implements AutoCloseable {
+    public interface Listener {
+        void onEvent(LotEvent event) throws Exception;
+    }
+    
+    private static final LotEvent STOP = LotEvent.parked(null, null);
+    
+    private static final class Subscriber implements Runnable {
+        final String name;
+        final Listener listener;
+        final BlockingQueue<LotEvent> queue;
+        final AtomicLong pending = new AtomicLong(); // published, not yet handled
+        final Thread thread;
+        
+        Subscriber(String name, int capacity, Listener listener) {
+            this.name = name;
+            this.listener = listener;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            while (true) {
+                LotEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (event == STOP) {
+                    return;
+                }
+                try {
+                    listener.onEvent(event);
+                } catch (Exception e) {
+                    System.out.println("✗ Event subscriber " + name + " failed: " + e.getMessage());
+                }
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (this) {
+                        notifyAll();
+                    }
+                }
+            }
+        }
+    }
+    
+    private volatile Subscriber[] subscribers = new Subscriber[0];
+    
+    public synchronized void subscribe(String name, int capacity, Listener listener) {
+        Subscriber subscriber = new Subscriber(name, capacity, listener);
+        Subscriber[] grown = Arrays.copyOf(subscribers, subscribers.length + 1);
+        grown[subscribers.length] = subscriber;
+        subscribers = grown;
+        subscriber.thread.start();
+    }
+    
+    // Every subscriber gets the event even if the gate is interrupted while a queue
+    // is full; the interrupt is restored afterwards
+    public void publish(LotEvent event) {
+        boolean interrupted = false;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.pending.incrementAndGet();
+            while (true) {
+                try {
+                    subscriber.queue.put(event);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Wait until every subscriber has handled everything published so far - the
+    // console uses this so a ticket prints before the next prompt
+    public void awaitDelivered() throws InterruptedException {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                while (subscriber.pending.get() > 0) {
+                    subscriber.wait();
+                }
+            }
+        }
+    }
+    
+    // Deliver what is queued, then stop the subscriber threads
+    @Override
+    public synchronized void close() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.queue.put(STOP);
+                subscriber.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        subscribers = new Subscriber[0];
+    }
+}
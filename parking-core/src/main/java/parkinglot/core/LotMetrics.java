@@ -0,0 +1,147 @@
+package parkinglot.core;
+
+import java.util.concurrent.atomic.*;
+import java.time.*;
+
+// Sliding-window entry, exit, revenue and peak-occupancy counters per category,
+// for dashboards that poll often. Each event adds to one per-minute bucket and one
+// per-day bucket in O(1), so reading the last 15 minutes or hour sums at most 60
+// buckets and "today" reads one; nothing rescans the history. Times are local
+// wall-clock, so days roll at local midnight. Peak occupancy is the highest slot
+// count seen at a park in the window, or the current one if that is higher.
+// Only live traffic is counted - windows start empty after a restart.
+public final class LotMetrics {
+    public enum Window {
+        LAST_15_MINUTES("Last 15 min"), LAST_HOUR("Last hour"), TODAY("Today");
+        
+        private final String label;
+        
+        Window(String label) { this.label = label; }
+        
+        public String getLabel() { return label; }
+    }
+    
+    private static final int CATEGORIES = VehicleCategory.values().length;
+    private static final int ENTRIES = 0, EXITS = 1, REVENUE = 2, PEAK = 3, FIELDS = 4;
+    
+    private final Buckets minutes = new Buckets(60, 60);
+    private final Buckets days = new Buckets(1, 86400);
+    private final ParkingClock clock;
+    
+    LotMetrics(ParkingClock clock) {
+        this.clock = clock;
+    }
+    
+    // A ring of time buckets, each FIELDS x CATEGORIES counters tagged with the
+    // unit (minute or day since the epoch) it currently holds
+    private static final class Buckets {
+        private final long unitSeconds;
+        private final AtomicLongArray units;
+        private final AtomicLongArray counters;
+        
+        Buckets(int count, long unitSeconds) {
+            this.unitSeconds = unitSeconds;
+            this.units = new AtomicLongArray(count);
+            this.counters = new AtomicLongArray(count * FIELDS * CATEGORIES);
+            for (int i = 0; i < count; i++) {
+                units.set(i, -1);
+            }
+        }
+        
+        // Index of the bucket for this second, cleared first if it still holds an
+        // older unit; -1 if the event is older than the bucket's unit
+        private int bucket(long second) {
+            long unit = Math.floorDiv(second, unitSeconds);
+            int index = (int) Math.floorMod(unit, (long) units.length());
+            long held = units.get(index);
+            if (held == unit) {
+                return index;
+            }
+            synchronized (this) {
+                held = units.get(index);
+                if (held > unit) {
+                    return -1;
+                }
+                if (held < unit) {
+                    int base = index * FIELDS * CATEGORIES;
+                    for (int i = base; i < base + FIELDS * CATEGORIES; i++) {
+                        counters.set(i, 0);
+                    }
+                    units.set(index, unit);
+                }
+                return index;
+            }
+        }
+        
+        void add(long second, int field, int category, long delta) {
+            int index = bucket(second);
+            if (index >= 0) {
+                counters.addAndGet((index * FIELDS + field) * CATEGORIES + category, delta);
+            }
+        }
+        
+        void max(long second, int field, int category, long value) {
+            int index = bucket(second);
+            if (index >= 0) {
+                counters.accumulateAndGet((index * FIELDS + field) * CATEGORIES + category, value, Math::max);
+            }
+        }
+        
+        // Sum (or max) of a field over the last `count` units up to now
+        long read(long nowSecond, int count, int field, int category, boolean max) {
+            long now = Math.floorDiv(nowSecond, unitSeconds);
+            long result = 0;
+            for (long unit = now - count + 1; unit <= now; unit++) {
+                int index = (int) Math.floorMod(unit, (long) units.length());
+                if (units.get(index) == unit) {
+                    long value = counters.get((index * FIELDS + field) * CATEGORIES + category);
+                    result = max ? Math.max(result, value) : result + value;
+                }
+            }
+            return result;
+        }
+    }
+    
+    void recordEntry(VehicleCategory category, LocalDateTime time, int occupiedSlots) {
+        long second = time.toEpochSecond(ZoneOffset.UTC);
+        int c = category.ordinal();
+        minutes.add(second, ENTRIES, c, 1);
+        days.add(second, ENTRIES, c, 1);
+        minutes.max(second, PEAK, c, occupiedSlots);
+        days.max(second, PEAK, c, occupiedSlots);
+    }
+    
+    void recordExit(VehicleCategory category, LocalDateTime time, long charges) {
+        long second = time.toEpochSecond(ZoneOffset.UTC);
+        int c = category.ordinal();
+        minutes.add(second, EXITS, c, 1);
+        days.add(second, EXITS, c, 1);
+        minutes.add(second, REVENUE, c, charges);
+        days.add(second, REVENUE, c, charges);
+    }
+    
+    public long getEntries(VehicleCategory category, Window window) {
+        return read(window, ENTRIES, category, false);
+    }
+    
+    public long getExits(VehicleCategory category, Window window) {
+        return read(window, EXITS, category, false);
+    }
+    
+    public long getRevenuePaise(VehicleCategory category, Window window) {
+        return read(window, REVENUE, category, false);
+    }
+    
+    public long getPeakOccupancy(VehicleCategory category, Window window, int occupiedNow) {
+        return Math.max(read(window, PEAK, category, true), occupiedNow);
+    }
+    
+    private long read(Window window, int field, VehicleCategory category, boolean max) {
+        long now = clock.now().toEpochSecond(ZoneOffset.UTC);
+        switch (window) {
+            case LAST_15_MINUTES: return minutes.read(now, 15, field, category.ordinal(), max);
+            case LAST_HOUR: return minutes.read(now, 60, field, category.ordinal(), max);
+            default: return days.read(now, 1, field, category.ordinal(), max);
+        }
+    }
+}
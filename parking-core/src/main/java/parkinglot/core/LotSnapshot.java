@@ -0,0 +1,184 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import java.time.*;
+
+// Full lot state as of the end of one journal segment - parked vehicles with their
+// tickets, slot occupancy bitmaps, recent history and the count of durable history
+// segments before it, revenue and id bounds. Written to a
+// temporary file, synced and renamed into place, so a snapshot file is always
+// complete; a CRC32C trailer catches a damaged one. Occupancy bitmaps are
+// redundant with the tickets and are checked against them on load.
+final class LotSnapshot {
+    private static final int MAGIC = 0x504C5331; // "PLS1"
+    private static final int VERSION = 2; // 2: history records carry their category
+    private static final VehicleCategory[] CATEGORIES = VehicleCategory.values();
+    
+    private LotSnapshot() {}
+    
+    // Returns the new snapshot-<covered>.snap
+    static Path write(Path directory, int coveredSequence, ParkingLotSystem lot) throws IOException {
+        String name = String.format("snapshot-%08d", coveredSequence);
+        Path temporary = directory.resolve(name + ".tmp");
+        Path snapshot = directory.resolve(name + ".snap");
+        
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(coveredSequence);
+            for (VehicleCategory category : CATEGORIES) {
+                out.writeInt(lot.getTotalSlots(category));
+            }
+            out.writeLong(lot.getTotalRevenuePaise());
+            out.writeLong(ParkingTicket.getIdBound());
+            out.writeLong(ParkingRecord.getIdBound());
+            for (VehicleCategory category : CATEGORIES) {
+                long[] words = lot.occupancyWords(category);
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+            
+            Collection<Vehicle> parked = lot.getParkedVehicles().values();
+            out.writeInt(parked.size());
+            for (Vehicle vehicle : parked) {
+                ParkingTicket ticket = lot.getTicket(vehicle.getVehicleNumber());
+                writeString(out, ticket.getTicketId());
+                writeTime(out, ticket.getIssueTime());
+                writeTime(out, vehicle.getEntryTime());
+                out.writeByte(vehicle.getCategory().ordinal());
+                out.writeInt(ticket.getSlotNumber());
+                out.writeByte(ticket.getSlotCount());
+                writeString(out, vehicle.getVehicleNumber());
+                writeString(out, vehicle.getOwnerName());
+                writeString(out, vehicle.getPhoneNumber());
+                switch (vehicle.getCategory()) {
+                    case CAR: writeString(out, ((Car) vehicle).getCarModel()); break;
+                    case BIKE: writeString(out, ((Bike) vehicle).getBikeModel()); break;
+                    case TRUCK: out.writeInt(((Truck) vehicle).getLoadCapacity()); break;
+                }
+            }
+            
+            // Spilled history is referenced, not copied - the lot spills into this directory
+            ParkingHistory history = lot.getHistory();
+            int segmentCount;
+            List<ParkingRecord> recent;
+            synchronized (history) { // a spill completing in between would move records across tiers
+                segmentCount = history.getSegmentCount();
+                recent = history.copyRecent();
+            }
+            if (!directory.equals(history.getSpillDirectory()) && segmentCount > 0) {
+                throw new IllegalStateException("History spilled outside the journal directory");
+            }
+            out.writeInt(segmentCount);
+            out.writeInt(recent.size());
+            for (ParkingRecord record : recent) {
+                ParkingHistory.writeRecord(out, record);
+            }
+            
+            out.flush();
+            // Trailer goes around the checksum, not through it
+            int crc = (int) checked.getChecksum().getValue();
+            new DataOutputStream(file).writeInt(crc);
+            file.getFD().sync();
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        return snapshot;
+    }
+    
+    // Restore a snapshot into an empty lot of the same shape
+    static void load(Path snapshot, ParkingLotSystem target) throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshot);
+        if (bytes.length < 4) {
+            throw new IOException("Truncated snapshot: " + snapshot);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - 4);
+        if ((int) checksum.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            throw new IOException("Corrupt snapshot: " + snapshot);
+        }
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " parking snapshot: " + snapshot);
+        }
+        in.readInt(); // covered sequence, also in the file name
+        for (VehicleCategory category : CATEGORIES) {
+            int slots = in.readInt();
+            if (slots != target.getTotalSlots(category)) {
+                throw new IllegalStateException("Snapshot does not match this lot: " + slots + " "
+                    + category + " slots, lot has " + target.getTotalSlots(category));
+            }
+        }
+        target.restoreRevenue(in.readLong());
+        ParkingTicket.reserveIdsBelow(in.readLong());
+        ParkingRecord.reserveIdsBelow(in.readLong());
+        long[][] occupancy = new long[CATEGORIES.length][];
+        for (VehicleCategory category : CATEGORIES) {
+            occupancy[category.ordinal()] = new long[in.readInt()];
+            for (int i = 0; i < occupancy[category.ordinal()].length; i++) {
+                occupancy[category.ordinal()][i] = in.readLong();
+            }
+        }
+        
+        int parked = in.readInt();
+        for (int i = 0; i < parked; i++) {
+            String ticketId = readString(in);
+            LocalDateTime issueTime = readTime(in);
+            LocalDateTime entryTime = readTime(in);
+            VehicleCategory category = CATEGORIES[in.readByte()];
+            int slotNumber = in.readInt();
+            int slotCount = in.readByte();
+            String vehicleNumber = readString(in);
+            String ownerName = readString(in);
+            String phoneNumber = readString(in);
+            String model = (category == VehicleCategory.TRUCK) ? null : readString(in);
+            int loadCapacity = (category == VehicleCategory.TRUCK) ? in.readInt() : 0;
+            Vehicle vehicle = EventJournal.restoreVehicle(category, vehicleNumber, ownerName, phoneNumber, model,
+                loadCapacity, entryTime);
+            target.replayPark(vehicle,
+                ParkingTicket.restore(ticketId, vehicle.getVehicleNumber(), slotNumber, slotCount, issueTime));
+        }
+        
+        target.getHistory().adopt(snapshot.getParent(), in.readInt());
+        int records = in.readInt();
+        for (int i = 0; i < records; i++) {
+            target.appendHistory(ParkingHistory.readRecord(in));
+        }
+        
+        for (VehicleCategory category : CATEGORIES) {
+            if (!Arrays.equals(occupancy[category.ordinal()], target.occupancyWords(category))) {
+                throw new IOException("Snapshot occupancy does not match its tickets: " + snapshot);
+            }
+        }
+    }
+    
+    static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+    
+    static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+    
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,26 @@
+package parkinglot.core;
+
+import java.math.BigDecimal;
+
+// Money - all amounts are fixed-point long paise (1 rupee = 100 paise),
+// so tariffs and revenue sums are exact
+public final class Money {
+    public static final long PAISE_PER_RUPEE = 100;
+    
+    private Money() {}
+    
+    public static long rupees(long rupees) {
+        return rupees * PAISE_PER_RUPEE;
+    }
+    
+    // 12345 -> "123.45"
+    public static String format(long paise) {
+        long abs = Math.abs(paise);
+        long fraction = abs % PAISE_PER_RUPEE;
+        return (paise < 0 ? "-" : "") + (abs / PAISE_PER_RUPEE) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+    
+    public static BigDecimal toDecimal(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+}
@@ -0,0 +1,16 @@
+package parkinglot.core;
+
+import java.time.*;
+
+// Engine time source. Everything in the engine that needs "now" asks a
+// ParkingClock, so production gates read a cached time and simulations or tests
+// run on a VirtualClock they advance themselves.
+public interface ParkingClock {
+    long millis(); // epoch milliseconds
+    LocalDateTime now(); // local wall-clock time
+    
+    // Shared cached clock on the system time zone
+    static ParkingClock system() {
+        return CachedClock.SYSTEM;
+    }
+}
@@ -0,0 +1,7 @@
+package parkinglot.core;
+
+public class ParkingFullException extends Exception {
+    public ParkingFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,431 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import java.time.*;
+
+// Parking history in two tiers - the most recent records in memory, older ones in
+// immutable spill segments of SEGMENT_RECORDS records each, so heap use stays flat
+// however long the lot runs. Reads see one sequence, oldest first, across both
+// tiers. Without a spill directory the segments go to a temporary directory and
+// are a cache; with one they are durable (synced, kept) and a snapshot can refer
+// to them instead of copying them. Segments are written by a background thread;
+// their records stay readable in memory until the write completes.
+final class ParkingHistory {
+    static final int DEFAULT_WINDOW = 10000;
+    static final int SEGMENT_RECORDS = 4096;
+    private static final int MAGIC = 0x504C4833; // "PLH3", records carry their category, offsets at the end
+    private static final VehicleCategory[] CATEGORIES = VehicleCategory.values();
+    
+    private final int window;
+    private final boolean durable;
+    private Path spillDirectory; // created on first spill when not given
+    private final List<Path> segments = new ArrayList<>(); // oldest first, SEGMENT_RECORDS each
+    private int nextSequence = 1;
+    
+    // Recent tier - ring buffer, oldest at head
+    private ParkingRecord[] ring;
+    private int head;
+    private int count;
+    private int spillAt; // count that triggers the next spill
+    private boolean spilling; // oldest SEGMENT_RECORDS of the ring are being written
+    private boolean spillFailed;
+    private volatile Consumer<IOException> spillFailureListener; // first failure of a run, on the writer thread
+    
+    // Segments whose checksum has been verified - later reads decode only the rows they need
+    private final Set<Path> verified = new HashSet<>();
+    
+    private final HistoryColumns columns = new HistoryColumns(this); // every record, packed for reports
+    
+    public ParkingHistory() {
+        this(DEFAULT_WINDOW, null);
+    }
+    
+    public ParkingHistory(int window, Path spillDirectory) {
+        this.window = window;
+        this.spillDirectory = spillDirectory;
+        this.durable = (spillDirectory != null);
+        // One segment of headroom, so adds need not grow the ring while a spill is written
+        this.ring = new ParkingRecord[window + 2 * SEGMENT_RECORDS];
+        this.spillAt = window + SEGMENT_RECORDS;
+    }
+    
+    public int getWindow() { return window; }
+    public HistoryColumns getColumns() { return columns; }
+    
+    public synchronized void add(ParkingRecord record) {
+        if (count == ring.length) {
+            grow(); // only while spilling fails or falls behind
+        }
+        ring[(head + count) % ring.length] = record;
+        count++;
+        columns.append(record);
+        if (count >= spillAt && !spilling) {
+            startSpill();
+        }
+    }
+    
+    // Told about spill failures instead of the console; records stay in memory meanwhile
+    void onSpillFailure(Consumer<IOException> listener) {
+        this.spillFailureListener = listener;
+    }
+    
+    public synchronized long size() {
+        return (long) segments.size() * SEGMENT_RECORDS + count;
+    }
+    
+    // Records [from, from + limit) oldest first, fewer at the end of history
+    public List<ParkingRecord> read(long from, int limit) {
+        List<Path> files;
+        long spilled;
+        List<ParkingRecord> result = new ArrayList<>();
+        synchronized (this) {
+            files = new ArrayList<>(segments);
+            spilled = (long) files.size() * SEGMENT_RECORDS;
+            // Recent part first, while the ring cannot move
+            long recentFrom = Math.max(from, spilled) - spilled;
+            long recentTo = Math.min(from + limit - spilled, count);
+            for (long i = recentFrom; i < recentTo; i++) {
+                result.add(ring[(int) ((head + i) % ring.length)]);
+            }
+        }
+        List<ParkingRecord> older = new ArrayList<>();
+        for (long position = from; position < Math.min(from + limit, spilled); ) {
+            int segment = (int) (position / SEGMENT_RECORDS);
+            int offset = (int) (position % SEGMENT_RECORDS);
+            int take = (int) Math.min(SEGMENT_RECORDS - offset, from + limit - position);
+            older.addAll(readSegment(files.get(segment), offset, take));
+            position += take;
+        }
+        older.addAll(result);
+        return older;
+    }
+    
+    // Every record oldest first, one spill segment in memory at a time
+    public void forEach(Consumer<ParkingRecord> action) {
+        List<Path> files;
+        List<ParkingRecord> recent;
+        synchronized (this) {
+            files = new ArrayList<>(segments);
+            recent = copyRecent();
+        }
+        for (Path file : files) {
+            readSegment(file, 0, SEGMENT_RECORDS).forEach(action);
+        }
+        recent.forEach(action);
+    }
+    
+    // Up to pageSize records matching the query, starting at a cursor from an
+    // earlier page (0 for the first). Records are in exit order, so the first page
+    // of a time range seeks to its start and the last stops at its end; other
+    // filters skip what they reject. Rows are read a page at a time, doubling while
+    // a filter keeps rejecting them, so an unfiltered page decodes only its own rows.
+    // The seek and the early stop assume exit times never go backwards in history
+    // order. They are local wall-clock times, so across a daylight-saving fall-back
+    // the repeated hour breaks that and a range query near it may skip records; run
+    // the lot's clock on a zone without DST (or UTC) where that matters.
+    public HistoryPage query(HistoryQuery query, long cursor, int pageSize) {
+        long position = (cursor == 0) ? seek(query.getFrom()) : cursor;
+        long end = size();
+        List<ParkingRecord> matches = new ArrayList<>(Math.min(pageSize, SEGMENT_RECORDS));
+        int batch = pageSize;
+        while (position < end && matches.size() < pageSize) {
+            int chunk = (int) Math.min(Math.min(SEGMENT_RECORDS - position % SEGMENT_RECORDS, end - position), batch);
+            batch = Math.min(batch * 2, SEGMENT_RECORDS);
+            for (ParkingRecord record : read(position, chunk)) {
+                if (query.isAfterRange(record)) {
+                    return new HistoryPage(matches, end, false);
+                }
+                position++;
+                if (query.matches(record)) {
+                    matches.add(record);
+                    if (matches.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new HistoryPage(matches, position, position < end);
+    }
+    
+    // Matching records, read a page at a time as the stream is consumed
+    public Stream<ParkingRecord> stream(HistoryQuery query) {
+        Iterator<ParkingRecord> records = new Iterator<ParkingRecord>() {
+            private HistoryPage page = query(query, 0, SEGMENT_RECORDS);
+            private int next;
+            
+            public boolean hasNext() {
+                while (next == page.getRecords().size() && page.hasMore()) {
+                    page = query(query, page.getNextCursor(), SEGMENT_RECORDS);
+                    next = 0;
+                }
+                return next < page.getRecords().size();
+            }
+            
+            public ParkingRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.getRecords().get(next++);
+            }
+        };
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    // Position of the first record that exited at or after the given time, found by
+    // binary search, so a range query decodes O(log n) records to find its start.
+    // Assumes exit times are non-decreasing in history order (see query).
+    private long seek(LocalDateTime exitFrom) {
+        if (exitFrom == null) {
+            return 0;
+        }
+        long low = 0;
+        long high = size();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            List<ParkingRecord> probe = read(mid, 1);
+            if (probe.isEmpty() || !probe.get(0).getExitTime().isBefore(exitFrom)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    // Snapshot support - the durable segments and the recent tier
+    synchronized int getSegmentCount() { return segments.size(); }
+    synchronized Path getSpillDirectory() { return spillDirectory; }
+    
+    synchronized List<ParkingRecord> copyRecent() {
+        List<ParkingRecord> recent = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recent.add(ring[(head + i) % ring.length]);
+        }
+        return recent;
+    }
+    
+    // Take over segments 1..segmentCount of a durable directory as the oldest
+    // history; only on an empty history, before anything is added
+    synchronized void adopt(Path directory, int segmentCount) {
+        if (size() != 0) {
+            throw new IllegalStateException("History already has records");
+        }
+        for (int sequence = 1; sequence <= segmentCount; sequence++) {
+            segments.add(segmentPath(directory, sequence));
+        }
+        columns.adopt(segmentCount);
+        if (directory.equals(spillDirectory)) {
+            nextSequence = segmentCount + 1;
+        }
+    }
+    
+    // Hand the oldest SEGMENT_RECORDS records to the spill writer. They stay in the
+    // ring, and readable, until their segment is written; on failure they stay in
+    // memory and the spill is retried after another SEGMENT_RECORDS records.
+    private void startSpill() {
+        ParkingRecord[] oldest = new ParkingRecord[SEGMENT_RECORDS];
+        for (int i = 0; i < SEGMENT_RECORDS; i++) {
+            oldest[i] = ring[(head + i) % ring.length];
+        }
+        int sequence = nextSequence;
+        spilling = true;
+        SpillWriter.EXECUTOR.execute(() -> spill(oldest, sequence));
+    }
+    
+    // On the spill writer thread, without this lock while writing
+    private void spill(ParkingRecord[] oldest, int sequence) {
+        try {
+            Path file = writeSegment(oldest, sequence);
+            synchronized (this) {
+                segments.add(file);
+                nextSequence = sequence + 1;
+                for (int i = 0; i < SEGMENT_RECORDS; i++) {
+                    ring[(head + i) % ring.length] = null;
+                }
+                head = (head + SEGMENT_RECORDS) % ring.length;
+                count -= SEGMENT_RECORDS;
+                spillAt = window + SEGMENT_RECORDS;
+                spilling = false;
+                spillFailed = false;
+                if (count >= spillAt) {
+                    startSpill(); // gates outran the writer, or a failed run left a backlog
+                }
+            }
+        } catch (IOException e) {
+            boolean first;
+            synchronized (this) {
+                spillAt = count + SEGMENT_RECORDS;
+                spilling = false;
+                first = !spillFailed;
+                spillFailed = true;
+            }
+            Consumer<IOException> failures = spillFailureListener;
+            if (first && failures != null) {
+                failures.accept(e);
+            }
+        }
+    }
+    
+    private Path writeSegment(ParkingRecord[] records, int sequence) throws IOException {
+        Path directory;
+        synchronized (this) {
+            if (spillDirectory == null) {
+                spillDirectory = Files.createTempDirectory("parking-history");
+                SpillWriter.TEMPORARY.add(spillDirectory);
+            }
+            directory = spillDirectory;
+        }
+        Path file = segmentPath(directory, sequence);
+        try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(out, 1 << 16), new CRC32C());
+            DataOutputStream data = new DataOutputStream(checked);
+            data.writeInt(MAGIC);
+            int[] offsets = new int[SEGMENT_RECORDS];
+            for (int i = 0; i < SEGMENT_RECORDS; i++) {
+                offsets[i] = data.size();
+                writeRecord(data, records[i]);
+            }
+            for (int offset : offsets) {
+                data.writeInt(offset);
+            }
+            data.flush();
+            new DataOutputStream(out).writeInt((int) checked.getChecksum().getValue());
+            if (durable) {
+                out.getFD().sync();
+            }
+        }
+        return file;
+    }
+    
+    // One writer thread for every history, started on the first spill. Temporary
+    // spill directories are removed by one shutdown hook rather than a deleteOnExit
+    // entry per segment.
+    private static final class SpillWriter {
+        static final Queue<Path> TEMPORARY = new ConcurrentLinkedQueue<>();
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "parking-history-spill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                for (Path directory : TEMPORARY) {
+                    try (Stream<Path> files = Files.list(directory)) {
+                        files.forEach(file -> file.toFile().delete());
+                    } catch (IOException e) {
+                        // best effort - it is a temporary directory
+                    }
+                    directory.toFile().delete();
+                }
+            }, "parking-history-cleanup"));
+        }
+    }
+    
+    private void grow() {
+        ParkingRecord[] larger = new ParkingRecord[ring.length * 2];
+        for (int i = 0; i < count; i++) {
+            larger[i] = ring[(head + i) % ring.length];
+        }
+        ring = larger;
+        head = 0;
+    }
+    
+    // Records [offset, offset + take) of a segment. The first read of a segment
+    // checks the whole file; later ones read the offset table and just their rows.
+    // Layout: MAGIC, records, one int offset per record, CRC32C of all before it.
+    private List<ParkingRecord> readSegment(Path file, int offset, int take) {
+        boolean known;
+        synchronized (this) {
+            known = verified.contains(file);
+        }
+        try {
+            byte[] bytes;
+            int start;
+            if (known) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long table = channel.size() - 4 - 4L * SEGMENT_RECORDS;
+                    start = readInt(channel, table + 4L * offset);
+                    int end = (offset + take < SEGMENT_RECORDS)
+                        ? readInt(channel, table + 4L * (offset + take))
+                        : (int) table;
+                    ByteBuffer range = ByteBuffer.allocate(end - start);
+                    while (range.hasRemaining()) {
+                        if (channel.read(range, start + range.position()) < 0) {
+                            throw new IOException("Truncated history segment: " + file);
+                        }
+                    }
+                    bytes = range.array();
+                    start = 0;
+                }
+            } else {
+                bytes = Files.readAllBytes(file);
+                CRC32C checksum = new CRC32C();
+                checksum.update(bytes, 0, bytes.length - 4);
+                if ((int) checksum.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()
+                        || ByteBuffer.wrap(bytes).getInt() != MAGIC) {
+                    throw new IOException("Corrupt history segment: " + file);
+                }
+                start = ByteBuffer.wrap(bytes, bytes.length - 4 - 4 * (SEGMENT_RECORDS - offset), 4).getInt();
+                synchronized (this) {
+                    verified.add(file);
+                }
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, start, bytes.length - start));
+            List<ParkingRecord> records = new ArrayList<>(take);
+            for (int i = 0; i < take; i++) {
+                records.add(readRecord(in));
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static int readInt(FileChannel channel, long position) throws IOException {
+        ByteBuffer value = ByteBuffer.allocate(4);
+        while (value.hasRemaining()) {
+            if (channel.read(value, position + value.position()) < 0) {
+                throw new EOFException("Truncated history segment");
+            }
+        }
+        return value.getInt(0);
+    }
+    
+    private static Path segmentPath(Path directory, int sequence) {
+        return directory.resolve(String.format("history-%08d.seg", sequence));
+    }
+    
+    // Record encoding shared with LotSnapshot
+    static void writeRecord(DataOutputStream out, ParkingRecord record) throws IOException {
+        LotSnapshot.writeString(out, record.getRecordId());
+        LotSnapshot.writeString(out, record.getVehicleNumber());
+        LotSnapshot.writeString(out, record.getVehicleType());
+        out.writeByte(record.getCategory().ordinal());
+        LotSnapshot.writeTime(out, record.getEntryTime());
+        LotSnapshot.writeTime(out, record.getExitTime());
+        out.writeLong(record.getCharges());
+    }
+    
+    static ParkingRecord readRecord(DataInputStream in) throws IOException {
+        String recordId = LotSnapshot.readString(in);
+        String vehicleNumber = LotSnapshot.readString(in);
+        String vehicleType = LotSnapshot.readString(in);
+        VehicleCategory category = CATEGORIES[in.readByte()];
+        LocalDateTime entryTime = LotSnapshot.readTime(in);
+        LocalDateTime exitTime = LotSnapshot.readTime(in);
+        return ParkingRecord.restore(recordId, vehicleNumber, vehicleType, category, entryTime, exitTime,
+            in.readLong());
+    }
+}
@@ -0,0 +1,426 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.time.*;
+
+// Thread-safe: gates may park and exit from separate threads. Car and bike slots
+// are claimed with a compare-and-set on the category's SlotBitmap, so their
+// park/exit path takes no locks; trucks need adjacent slots and claim runs from a
+// ContiguousSlotAllocator under its monitor. The gate that wins a slot is the only
+// writer of its ParkingSlot.
+// With a journal attached, a park is journaled before its ticket is published and
+// an exit before its slots are released, so journal order replays to the same state.
+// Park and exit print nothing; tickets and receipts go out as LotEvents.
+public final class ParkingLotSystem {
+    // Collections
+    private ConcurrentHashMap<String, Vehicle> parkedVehicles; // vehicleNumber -> Vehicle
+    private ConcurrentHashMap<String, ParkingTicket> tickets; // ticketId -> Ticket
+    private ConcurrentHashMap<String, ParkingTicket> ticketsByVehicle; // vehicleNumber -> Ticket
+    private SlotDirectory slotDirectory; // slotNumber -> ParkingSlot
+    private ParkingHistory parkingHistory; // recent records in memory, older ones spilled to disk
+    private SlotAllocator[] availableSlots; // by category, index i -> slot firstSlotNumber[category] + i
+    
+    // Final constants
+    private final int TOTAL_CAR_SLOTS;
+    private final int TOTAL_BIKE_SLOTS;
+    private final int TOTAL_TRUCK_SLOTS;
+    
+    // First slot number of each category (1, 101, 201 for lots up to 100 per category)
+    private final int[] firstSlotNumber;
+    
+    private LongAdder totalRevenue; // in paise
+    private volatile EventJournal journal; // null when running without one
+    private final HistoryColumns historyColumns; // appended to by the history as records arrive
+    private final ParkingClock clock;
+    private final LotMetrics metrics;
+    private final LotEventBus events = new LotEventBus(); // tickets and receipts go out here
+    
+    // Constructor
+    public ParkingLotSystem(int carSlots, int bikeSlots, int truckSlots) {
+        this(carSlots, bikeSlots, truckSlots, ParkingClock.system());
+    }
+    
+    public ParkingLotSystem(int carSlots, int bikeSlots, int truckSlots, ParkingClock clock) {
+        this(carSlots, bikeSlots, truckSlots, new ParkingHistory(), clock);
+    }
+    
+    ParkingLotSystem(int carSlots, int bikeSlots, int truckSlots, ParkingHistory history, ParkingClock clock) {
+        this.clock = clock;
+        this.metrics = new LotMetrics(clock);
+        this.TOTAL_CAR_SLOTS = carSlots;
+        this.TOTAL_BIKE_SLOTS = bikeSlots;
+        this.TOTAL_TRUCK_SLOTS = truckSlots;
+        
+        int firstCarSlot = 1;
+        int firstBikeSlot = nextSlotBlock(firstCarSlot + carSlots, 101);
+        int firstTruckSlot = nextSlotBlock(firstBikeSlot + bikeSlots, 201);
+        this.firstSlotNumber = new int[] { firstCarSlot, firstBikeSlot, firstTruckSlot };
+        
+        parkedVehicles = new ConcurrentHashMap<>();
+        tickets = new ConcurrentHashMap<>();
+        ticketsByVehicle = new ConcurrentHashMap<>();
+        parkingHistory = history;
+        parkingHistory.onSpillFailure(e -> events.publish(LotEvent.historySpillFailed(e)));
+        historyColumns = parkingHistory.getColumns();
+        
+        // Initialize slots
+        slotDirectory = new SlotDirectory(firstTruckSlot + TOTAL_TRUCK_SLOTS - 1);
+        
+        availableSlots = new SlotAllocator[] {
+            new SlotBitmap(TOTAL_CAR_SLOTS),
+            new SlotBitmap(TOTAL_BIKE_SLOTS),
+            new ContiguousSlotAllocator(TOTAL_TRUCK_SLOTS)
+        };
+        
+        initializeSlots();
+        totalRevenue = new LongAdder();
+    }
+    
+    // Start of the next block of 100 slot numbers, but never below the default
+    private static int nextSlotBlock(int firstFreeNumber, int defaultStart) {
+        int blockStart = ((firstFreeNumber - 2) / 100 + 1) * 100 + 1;
+        return Math.max(blockStart, defaultStart);
+    }
+    
+    private void initializeSlots() {
+        // Car slots (1-100), bike slots (101-200), truck slots (201-220)
+        for (VehicleCategory category : VehicleCategory.values()) {
+            int first = firstSlotNumber[category.ordinal()];
+            int total = availableSlots[category.ordinal()].getCapacity();
+            for (int i = first; i < first + total; i++) {
+                slotDirectory.register(new ParkingSlot(i, category.name()));
+            }
+        }
+    }
+    
+    // Park vehicle
+    public ParkingTicket parkVehicle(Vehicle vehicle)
+            throws ParkingFullException, SlotNotAvailableException, InvalidVehicleException {
+        // Reserve the vehicle number - a second gate parking the same vehicle fails here
+        String vehicleNumber = vehicle.getVehicleNumber();
+        if (parkedVehicles.putIfAbsent(vehicleNumber, vehicle) != null) {
+            throw new InvalidVehicleException("Vehicle already parked: " + vehicleNumber);
+        }
+        
+        VehicleCategory category = vehicle.getCategory();
+        int requiredSlots = vehicle.getRequiredSlots();
+        
+        // Claim lowest run of free slots of the vehicle's category
+        int slotIndex = availableSlots[category.ordinal()].allocate(requiredSlots);
+        if (slotIndex < 0) {
+            parkedVehicles.remove(vehicleNumber, vehicle);
+            throw new ParkingFullException("No available slots for " + category);
+        }
+        int slotNumber = firstSlotNumber[category.ordinal()] + slotIndex;
+        for (int i = slotNumber; i < slotNumber + requiredSlots; i++) {
+            slotDirectory.get(i).occupySlot(vehicleNumber);
+        }
+        
+        // Create ticket - publishing it in ticketsByVehicle makes the vehicle exitable
+        vehicle.setClock(clock);
+        vehicle.setEntryTime(clock.now());
+        ParkingTicket ticket = new ParkingTicket(vehicleNumber, slotNumber, requiredSlots, vehicle.getEntryTime());
+        tickets.put(ticket.getTicketId(), ticket);
+        EventJournal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.appendPark(vehicle, ticket);
+            } catch (RuntimeException e) {
+                // Not durable - undo the park
+                tickets.remove(ticket.getTicketId());
+                vacateSlots(vehicle, slotNumber, requiredSlots);
+                parkedVehicles.remove(vehicleNumber, vehicle);
+                throw e;
+            }
+        }
+        // Published while the vehicle cannot exit yet, so subscribers see park before exit
+        events.publish(LotEvent.parked(vehicle, ticket));
+        // Checked before the put - once published, another gate may exit the vehicle
+        assert tickets.get(ticket.getTicketId()) == ticket && !ticketsByVehicle.containsKey(vehicleNumber)
+            : "ticket index out of sync before park";
+        ticketsByVehicle.put(vehicleNumber, ticket);
+        metrics.recordEntry(category, ticket.getIssueTime(), getOccupiedSlots(category));
+        
+        return ticket;
+    }
+    
+    // Exit vehicle
+    public ParkingRecord exitVehicle(String vehicleNumber) throws VehicleNotFoundException {
+        String key = vehicleNumber.toUpperCase();
+        
+        // Removing the ticket claims the exit - only one gate can win it
+        ParkingTicket ticket = ticketsByVehicle.remove(key);
+        Vehicle vehicle = (ticket != null) ? parkedVehicles.get(key) : null;
+        
+        if (vehicle == null) {
+            throw new VehicleNotFoundException("Vehicle not found: " + vehicleNumber);
+        }
+        
+        // Set exit time and calculate charges
+        vehicle.setExitTime(clock.now());
+        long charges = vehicle.calculateParkingCharges();
+        
+        // Create record
+        ParkingRecord record = new ParkingRecord(vehicle, charges);
+        EventJournal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.appendExit(record);
+            } catch (RuntimeException e) {
+                // Not durable - the vehicle stays parked
+                vehicle.setExitTime(null);
+                ticketsByVehicle.put(key, ticket);
+                throw e;
+            }
+        }
+        totalRevenue.add(charges);
+        
+        // Vacate slot
+        vacateSlots(vehicle, ticket.getSlotNumber(), ticket.getSlotCount());
+        tickets.remove(ticket.getTicketId());
+        appendHistory(record);
+        metrics.recordExit(vehicle.getCategory(), record.getExitTime(), charges);
+        events.publish(LotEvent.exited(vehicle, ticket, record));
+        
+        // Remove from parked vehicles - releases the vehicle number
+        parkedVehicles.remove(key);
+        return record;
+    }
+    
+    // Rebuild state from the journal, then journal every later park and exit.
+    // Call on a new system before any gate opens; returns the events replayed.
+    public long recover(EventJournal journal) throws IOException {
+        long events = journal.replay(this);
+        this.journal = journal;
+        return events;
+    }
+    
+    // Journal replay - the state changes of parkVehicle, without journaling or printing
+    void replayPark(Vehicle vehicle, ParkingTicket ticket) {
+        String vehicleNumber = vehicle.getVehicleNumber();
+        int category = vehicle.getCategory().ordinal();
+        int slotNumber = ticket.getSlotNumber();
+        if (parkedVehicles.putIfAbsent(vehicleNumber, vehicle) != null
+                || !availableSlots[category].claim(slotNumber - firstSlotNumber[category], ticket.getSlotCount())) {
+            throw new IllegalStateException("Journal does not match this lot: cannot park " + vehicleNumber
+                + " at slot " + ticket.getSlotLabel());
+        }
+        vehicle.setClock(clock);
+        for (int i = slotNumber; i < slotNumber + ticket.getSlotCount(); i++) {
+            slotDirectory.get(i).occupySlot(vehicleNumber);
+        }
+        tickets.put(ticket.getTicketId(), ticket);
+        ticketsByVehicle.put(vehicleNumber, ticket);
+    }
+    
+    // Journal replay - the state changes of exitVehicle
+    void replayExit(String vehicleNumber, LocalDateTime exitTime, long charges, String recordId) {
+        ParkingTicket ticket = ticketsByVehicle.remove(vehicleNumber);
+        Vehicle vehicle = (ticket != null) ? parkedVehicles.remove(vehicleNumber) : null;
+        if (vehicle == null) {
+            throw new IllegalStateException("Journal does not match this lot: " + vehicleNumber + " is not parked");
+        }
+        vehicle.setExitTime(exitTime);
+        totalRevenue.add(charges);
+        vacateSlots(vehicle, ticket.getSlotNumber(), ticket.getSlotCount());
+        tickets.remove(ticket.getTicketId());
+        appendHistory(ParkingRecord.restore(recordId, vehicle, charges));
+    }
+    
+    // Snapshot support - an empty lot of the same shape, and the state a snapshot captures
+    ParkingLotSystem emptyCopy(Path historyDirectory) {
+        return new ParkingLotSystem(TOTAL_CAR_SLOTS, TOTAL_BIKE_SLOTS, TOTAL_TRUCK_SLOTS,
+            new ParkingHistory(parkingHistory.getWindow(), historyDirectory), clock);
+    }
+    
+    ParkingTicket getTicket(String vehicleNumber) {
+        return ticketsByVehicle.get(vehicleNumber);
+    }
+    
+    // Slot behind a slot number, and the number of a category's first slot (index 0 of its allocator)
+    ParkingSlot getSlot(int slotNumber) {
+        return slotDirectory.get(slotNumber);
+    }
+    
+    int getFirstSlotNumber(VehicleCategory category) {
+        return firstSlotNumber[category.ordinal()];
+    }
+    
+    ParkingHistory getHistory() {
+        return parkingHistory;
+    }
+    
+    // Occupancy of one category as bitmap words, bit i set while slot index i is taken
+    long[] occupancyWords(VehicleCategory category) {
+        SlotAllocator slots = availableSlots[category.ordinal()];
+        long[] words = new long[(slots.getCapacity() + 63) >>> 6];
+        for (int i = 0; i < slots.getCapacity(); i++) {
+            if (!slots.isFree(i)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return words;
+    }
+    
+    // Columnar history for reports
+    public HistoryColumns getHistoryColumns() {
+        return historyColumns;
+    }
+    
+    void restoreRevenue(long paise) {
+        totalRevenue.add(paise);
+    }
+    
+    public void appendHistory(ParkingRecord record) {
+        parkingHistory.add(record);
+    }
+    
+    private void vacateSlots(Vehicle vehicle, int slotNumber, int slotCount) {
+        int category = vehicle.getCategory().ordinal();
+        // Vacate before releasing, so the next gate to claim the slots sees them empty
+        for (int i = slotNumber; i < slotNumber + slotCount; i++) {
+            slotDirectory.get(i).vacateSlot();
+        }
+        availableSlots[category].release(slotNumber - firstSlotNumber[category], slotCount);
+    }
+    
+    // Consistency check - every ticket is indexed by its vehicle and nothing else is
+    // (full scan, only meaningful while no gate is mid-operation)
+    boolean isTicketIndexConsistent() {
+        if (tickets.size() != ticketsByVehicle.size()) {
+            return false;
+        }
+        for (ParkingTicket ticket : tickets.values()) {
+            if (ticketsByVehicle.get(ticket.getVehicleNumber()) != ticket) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Display available slots
+    public void displayAvailableSlots() {
+        System.out.println("\n╔═══════════════════════════════════════════╗");
+        System.out.println("║        AVAILABLE PARKING SLOTS            ║");
+        System.out.println("╠═══════════════════════════════════════════╣");
+        System.out.println("║ Car Slots:   " + getAvailableSlots(VehicleCategory.CAR) + " / " + TOTAL_CAR_SLOTS + "                       ║");
+        System.out.println("║ Bike Slots:  " + getAvailableSlots(VehicleCategory.BIKE) + " / " + TOTAL_BIKE_SLOTS + "                      ║");
+        System.out.println("║ Truck Slots: " + getAvailableSlots(VehicleCategory.TRUCK) + " / " + TOTAL_TRUCK_SLOTS + "                   ║");
+        System.out.println("║ Largest Truck Gap: " + getLargestFreeRun(VehicleCategory.TRUCK) + " slots               ║");
+        System.out.println("╚═══════════════════════════════════════════╝");
+    }
+    
+    // Display all parked vehicles
+    public void displayParkedVehicles() {
+        System.out.println("\n═══════════════════════════════════════");
+        System.out.println("        CURRENTLY PARKED VEHICLES");
+        System.out.println("═══════════════════════════════════════");
+        
+        if (parkedVehicles.isEmpty()) {
+            System.out.println("No vehicles currently parked.");
+            return;
+        }
+        
+        for (Vehicle vehicle : parkedVehicles.values()) {
+            vehicle.displayVehicleInfo();
+        }
+    }
+    
+    // One page of history; returns it so the caller can ask for the next one
+    public HistoryPage displayParkingHistory(HistoryQuery query, long cursor, int pageSize) {
+        System.out.println("\n═══════════════════════════════════════════════════════════════════════════════");
+        System.out.println("                     PARKING HISTORY");
+        System.out.println("═══════════════════════════════════════════════════════════════════════════════");
+        
+        // Older records stream back from the spill segments one segment at a time
+        HistoryPage page;
+        try {
+            page = parkingHistory.query(query, cursor, pageSize);
+        } catch (UncheckedIOException e) {
+            System.out.println("✗ Error reading older history: " + e.getMessage());
+            return new HistoryPage(Collections.emptyList(), cursor, false);
+        }
+        if (page.getRecords().isEmpty()) {
+            System.out.println("No parking history available.");
+            return page;
+        }
+        
+        System.out.printf("%-10s %-15s %-20s %-15s %-15s %s%n",
+            "RECORD", "VEHICLE", "TYPE", "ENTRY", "EXIT", "CHARGES");
+        System.out.println("───────────────────────────────────────────────────────────────────────────────");
+        TicketRenderer.local().history(page.getRecords()).printTo(System.out);
+        return page;
+    }
+    
+    // Search vehicle
+    public void searchVehicle(String vehicleNumber) throws VehicleNotFoundException {
+        Vehicle vehicle = parkedVehicles.get(vehicleNumber.toUpperCase());
+        if (vehicle == null) {
+            throw new VehicleNotFoundException("Vehicle not found: " + vehicleNumber);
+        }
+        vehicle.displayVehicleInfo();
+    }
+    
+    // Statistics
+    public void displayStatistics() {
+        System.out.println("\n╔═══════════════════════════════════════════╗");
+        System.out.println("║          PARKING STATISTICS               ║");
+        System.out.println("╠═══════════════════════════════════════════╣");
+        System.out.println("║ Currently Parked: " + parkedVehicles.size() + "                  ║");
+        System.out.println("║ Total Processed: " + Vehicle.getTotalVehiclesProcessed() + "                 ║");
+        System.out.println("║ Total Revenue: ₹" + Money.format(totalRevenue.sum()) + "             ║");
+        System.out.println("║ History Records: " + getHistorySize() + "                  ║");
+        try {
+            HistoryColumns.Totals totals = getHistoryColumns().totals();
+            System.out.println("╠═══════════════════════════════════════════╣");
+            for (VehicleCategory category : VehicleCategory.values()) {
+                System.out.printf("║ %-42s║%n", String.format("%-5s ₹%s, avg stay %.1f min", category,
+                    Money.format(totals.getRevenuePaise(category)), totals.getAverageStayMinutes(category)));
+            }
+        } catch (UncheckedIOException e) {
+            System.out.printf("║ %-42.42s║%n", "✗ History unavailable: " + e.getCause().getMessage());
+        }
+        for (LotMetrics.Window window : LotMetrics.Window.values()) {
+            System.out.println("╠═══════════════════════════════════════════╣");
+            System.out.printf("║ %-42s║%n", window.getLabel());
+            for (VehicleCategory category : VehicleCategory.values()) {
+                System.out.printf("║ %-42s║%n", String.format("%-5s in %d out %d ₹%s peak %d/%d", category,
+                    metrics.getEntries(category, window), metrics.getExits(category, window),
+                    Money.format(metrics.getRevenuePaise(category, window)),
+                    metrics.getPeakOccupancy(category, window, getOccupiedSlots(category)),
+                    getTotalSlots(category)));
+            }
+        }
+        System.out.println("╚═══════════════════════════════════════════╝");
+    }
+    
+    public long getTotalRevenuePaise() { return totalRevenue.sum(); }
+    public int getCurrentlyParked() { return parkedVehicles.size(); }
+    public int getAvailableSlots(VehicleCategory category) {
+        return availableSlots[category.ordinal()].getFreeCount();
+    }
+    public int getTotalSlots(VehicleCategory category) {
+        return availableSlots[category.ordinal()].getCapacity();
+    }
+    public int getOccupiedSlots(VehicleCategory category) {
+        SlotAllocator slots = availableSlots[category.ordinal()];
+        return slots.getCapacity() - slots.getFreeCount();
+    }
+    public LotMetrics getMetrics() { return metrics; }
+    public ParkingClock getClock() { return clock; }
+    public LotEventBus getEvents() { return events; }
+    public int getLargestFreeRun(VehicleCategory category) {
+        return availableSlots[category.ordinal()].getLargestFreeRun();
+    }
+    public double getFragmentation(VehicleCategory category) {
+        return availableSlots[category.ordinal()].getFragmentation();
+    }
+    public long getHistorySize() {
+        return parkingHistory.size();
+    }
+    public Map<String, Vehicle> getParkedVehicles() { return parkedVehicles; }
+}
@@ -0,0 +1,66 @@
+package parkinglot.core;
+
+import java.time.*;
+
+public class ParkingRecord {
+    private String recordId;
+    private String vehicleNumber;
+    private String vehicleType;
+    private VehicleCategory category;
+    private LocalDateTime entryTime;
+    private LocalDateTime exitTime;
+    private long charges; // in paise
+    private static final String ID_PREFIX = "REC";
+    private static final IdGenerator recordIds = new IdGenerator(1);
+    
+    public ParkingRecord(Vehicle vehicle, long charges) {
+        this(ID_PREFIX + recordIds.nextId(), vehicle, charges);
+    }
+    
+    private ParkingRecord(String recordId, Vehicle vehicle, long charges) {
+        this(recordId, vehicle.getVehicleNumber(), vehicle.getVehicleType(), vehicle.getCategory(),
+            vehicle.getEntryTime(), vehicle.getExitTime(), charges);
+    }
+    
+    private ParkingRecord(String recordId, String vehicleNumber, String vehicleType, VehicleCategory category,
+                          LocalDateTime entryTime, LocalDateTime exitTime, long charges) {
+        this.recordId = recordId;
+        this.vehicleNumber = vehicleNumber;
+        this.vehicleType = vehicleType;
+        this.category = category;
+        this.entryTime = entryTime;
+        this.exitTime = exitTime;
+        this.charges = charges;
+    }
+    
+    // Record restored from the journal - keeps its id, later records are numbered after it
+    static ParkingRecord restore(String recordId, Vehicle vehicle, long charges) {
+        recordIds.advancePast(Long.parseLong(recordId, ID_PREFIX.length(), recordId.length(), 10));
+        return new ParkingRecord(recordId, vehicle, charges);
+    }
+    
+    // Record read back from a snapshot or history segment, where its vehicle no longer
+    // exists; the id bound stored with them keeps new ids clear of it
+    public static ParkingRecord restore(String recordId, String vehicleNumber, String vehicleType, VehicleCategory category,
+                                 LocalDateTime entryTime, LocalDateTime exitTime, long charges) {
+        return new ParkingRecord(recordId, vehicleNumber, vehicleType, category, entryTime, exitTime, charges);
+    }
+    
+    static long getIdBound() { return recordIds.getIssuedBound(); }
+    static void reserveIdsBelow(long bound) { recordIds.advancePast(bound - 1); }
+    
+    // Getters
+    public String getRecordId() { return recordId; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public String getVehicleType() { return vehicleType; }
+    public VehicleCategory getCategory() { return category; }
+    public LocalDateTime getEntryTime() { return entryTime; }
+    public LocalDateTime getExitTime() { return exitTime; }
+    public long getCharges() { return charges; }
+    
+    // One history table row, rendered like the history page
+    @Override
+    public String toString() {
+        return TicketRenderer.local().historyRow(this).asString();
+    }
+}
@@ -0,0 +1,36 @@
+package parkinglot.core;
+
+class ParkingSlot {
+    private int slotNumber;
+    private volatile boolean isOccupied; // mirrors the category's SlotBitmap
+    private volatile String vehicleNumber;
+    private String slotType; // CAR, BIKE, TRUCK
+    
+    public ParkingSlot(int slotNumber, String slotType) {
+        this.slotNumber = slotNumber;
+        this.slotType = slotType;
+        this.isOccupied = false;
+    }
+    
+    // Encapsulation
+    public int getSlotNumber() { return slotNumber; }
+    public boolean isOccupied() { return isOccupied; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public String getSlotType() { return slotType; }
+    
+    public void occupySlot(String vehicleNumber) {
+        this.isOccupied = true;
+        this.vehicleNumber = vehicleNumber;
+    }
+    
+    public void vacateSlot() {
+        this.isOccupied = false;
+        this.vehicleNumber = null;
+    }
+    
+    @Override
+    public String toString() {
+        String status = isOccupied ? "❌ OCCUPIED" : "✓ AVAILABLE";
+        return String.format("Slot %d [%s] - %s", slotNumber, slotType, status);
+    }
+}
@@ -0,0 +1,55 @@
+package parkinglot.core;
+
+import java.time.*;
+
+public class ParkingTicket {
+    private String ticketId;
+    private String vehicleNumber;
+    private int slotNumber; // first slot of the run
+    private int slotCount;
+    private LocalDateTime issueTime;
+    private static final String ID_PREFIX = "TICKET";
+    private static final IdGenerator ticketIds = new IdGenerator(1001);
+    
+    ParkingTicket(String vehicleNumber, int slotNumber, int slotCount, LocalDateTime issueTime) {
+        this.ticketId = ID_PREFIX + ticketIds.nextId();
+        this.vehicleNumber = vehicleNumber;
+        this.slotNumber = slotNumber;
+        this.slotCount = slotCount;
+        this.issueTime = issueTime;
+    }
+    
+    private ParkingTicket(String ticketId, String vehicleNumber, int slotNumber, int slotCount, LocalDateTime issueTime) {
+        this.ticketId = ticketId;
+        this.vehicleNumber = vehicleNumber;
+        this.slotNumber = slotNumber;
+        this.slotCount = slotCount;
+        this.issueTime = issueTime;
+    }
+    
+    // Snapshots carry the id bound so tickets issued after a restart never reuse an id
+    static long getIdBound() { return ticketIds.getIssuedBound(); }
+    static void reserveIdsBelow(long bound) { ticketIds.advancePast(bound - 1); }
+    
+    // Ticket restored from the journal - keeps its id, later tickets are numbered after it
+    static ParkingTicket restore(String ticketId, String vehicleNumber, int slotNumber, int slotCount,
+                                 LocalDateTime issueTime) {
+        ticketIds.advancePast(Long.parseLong(ticketId, ID_PREFIX.length(), ticketId.length(), 10));
+        return new ParkingTicket(ticketId, vehicleNumber, slotNumber, slotCount, issueTime);
+    }
+    
+    public String getTicketId() { return ticketId; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public int getSlotNumber() { return slotNumber; }
+    public int getSlotCount() { return slotCount; }
+    
+    // "7" or "201-202"
+    public String getSlotLabel() {
+        return (slotCount == 1) ? String.valueOf(slotNumber) : slotNumber + "-" + (slotNumber + slotCount - 1);
+    }
+    public LocalDateTime getIssueTime() { return issueTime; }
+    
+    public void displayTicket() {
+        TicketRenderer.local().ticket(this).printTo(System.out);
+    }
+}
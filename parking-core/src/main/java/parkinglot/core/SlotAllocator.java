@@ -0,0 +1,23 @@
+package parkinglot.core;
+
+// Free-slot allocator of one category - indexes run from 0 to capacity - 1
+interface SlotAllocator {
+    // Claim the lowest run of adjacent free slots, or -1 when there is none
+    int allocate(int slots);
+    // Claim exactly this run if all of it is free (journal replay)
+    boolean claim(int firstIndex, int slots);
+    void release(int firstIndex, int slots);
+    boolean isFree(int index);
+    int getFreeCount();
+    int getCapacity();
+    
+    // Fragmentation metrics (may scan the whole pool)
+    int getLargestFreeRun();
+    int getFreeRunCount();
+    
+    // 0 when all free slots form one run, towards 1 when they are scattered
+    default double getFragmentation() {
+        int free = getFreeCount();
+        return (free == 0) ? 0.0 : 1.0 - (double) getLargestFreeRun() / free;
+    }
+}
@@ -0,0 +1,172 @@
+package parkinglot.core;
+
+import java.util.concurrent.atomic.*;
+
+// Free-slot bitmap - hands out the lowest free slot index without boxing or locking.
+// Bit i of words is set while slot index i is free (the inverse of
+// ParkingSlot.isOccupied). A slot is claimed by a compare-and-set that clears its
+// bit, so two gates can never win the same slot. Bit w of summary is a hint that
+// words[w] may still have a free bit; a lookup reads one summary word per 4096
+// slots and then a single data word.
+class SlotBitmap implements SlotAllocator {
+    private final AtomicLongArray words;
+    private final AtomicLongArray summary;
+    private final int capacity;
+    private final LongAdder freeCount;
+    
+    public SlotBitmap(int capacity) {
+        this.capacity = capacity;
+        int wordCount = (capacity + 63) >>> 6;
+        this.words = new AtomicLongArray(wordCount);
+        this.summary = new AtomicLongArray((wordCount + 63) >>> 6);
+        
+        // Every slot starts free
+        for (int w = 0; w < wordCount; w++) {
+            int bitsInWord = Math.min(64, capacity - (w << 6));
+            words.set(w, (bitsInWord == 64) ? -1L : (1L << bitsInWord) - 1);
+            setHint(w);
+        }
+        this.freeCount = new LongAdder();
+        freeCount.add(capacity);
+    }
+    
+    // Claim the lowest free index, or -1 when a full pass finds every slot taken
+    public int allocate() {
+        for (int s = 0; s < summary.length(); s++) {
+            long summaryWord;
+            while ((summaryWord = summary.get(s)) != 0) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(summaryWord);
+                long word = words.get(w);
+                if (word == 0) {
+                    clearHint(w); // stale hint
+                    continue;
+                }
+                long claimed = word & (word - 1); // clear lowest set bit
+                if (words.compareAndSet(w, word, claimed)) {
+                    if (claimed == 0) {
+                        clearHint(w);
+                    }
+                    freeCount.decrement();
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+                // Another gate changed this word first - retry
+            }
+        }
+        return -1;
+    }
+    
+    public void release(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IllegalArgumentException("Slot index out of range: " + index);
+        }
+        int w = index >>> 6;
+        long mask = 1L << index;
+        long word;
+        do {
+            word = words.get(w);
+            if ((word & mask) != 0) {
+                throw new IllegalStateException("Slot index already free: " + index);
+            }
+        } while (!words.compareAndSet(w, word, word | mask));
+        setHint(w);
+        freeCount.increment();
+    }
+    
+    public boolean isFree(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+    
+    private void setHint(int w) {
+        int s = w >>> 6;
+        long bit = 1L << w;
+        long current;
+        do {
+            current = summary.get(s);
+            if ((current & bit) != 0) {
+                return;
+            }
+        } while (!summary.compareAndSet(s, current, current | bit));
+    }
+    
+    private void clearHint(int w) {
+        int s = w >>> 6;
+        long bit = 1L << w;
+        long current;
+        do {
+            current = summary.get(s);
+            if ((current & bit) == 0) {
+                return;
+            }
+        } while (!summary.compareAndSet(s, current, current & ~bit));
+        
+        // A release may have freed a bit after we read the word - restore its hint
+        if (words.get(w) != 0) {
+            setHint(w);
+        }
+    }
+    
+    @Override
+    public int allocate(int slots) {
+        if (slots != 1) {
+            throw new IllegalArgumentException("SlotBitmap only claims single slots, not " + slots);
+        }
+        return allocate();
+    }
+    
+    @Override
+    public boolean claim(int firstIndex, int slots) {
+        if (slots != 1) {
+            throw new IllegalArgumentException("SlotBitmap only claims single slots, not " + slots);
+        }
+        if (firstIndex < 0 || firstIndex >= capacity) {
+            return false;
+        }
+        int w = firstIndex >>> 6;
+        long mask = 1L << firstIndex;
+        long word;
+        do {
+            word = words.get(w);
+            if ((word & mask) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(w, word, word & ~mask));
+        if ((word & ~mask) == 0) {
+            clearHint(w);
+        }
+        freeCount.decrement();
+        return true;
+    }
+    
+    @Override
+    public void release(int firstIndex, int slots) {
+        if (slots != 1) {
+            throw new IllegalArgumentException("SlotBitmap only releases single slots, not " + slots);
+        }
+        release(firstIndex);
+    }
+    
+    @Override
+    public int getLargestFreeRun() {
+        int largest = 0;
+        int current = 0;
+        for (int i = 0; i < capacity; i++) {
+            current = isFree(i) ? current + 1 : 0;
+            largest = Math.max(largest, current);
+        }
+        return largest;
+    }
+    
+    @Override
+    public int getFreeRunCount() {
+        int runs = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (isFree(i) && (i == 0 || !isFree(i - 1))) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+    
+    public int getFreeCount() { return freeCount.intValue(); }
+    public int getCapacity() { return capacity; }
+}
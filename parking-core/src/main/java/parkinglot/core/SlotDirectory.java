@@ -0,0 +1,22 @@
+package parkinglot.core;
+
+// Slot directory - maps a slot number straight to its ParkingSlot
+class SlotDirectory {
+    private final ParkingSlot[] slots; // index = slot number
+    
+    public SlotDirectory(int highestSlotNumber) {
+        this.slots = new ParkingSlot[highestSlotNumber + 1];
+    }
+    
+    public void register(ParkingSlot slot) {
+        slots[slot.getSlotNumber()] = slot;
+    }
+    
+    // O(1) lookup, null if the number is not a slot of this lot
+    public ParkingSlot get(int slotNumber) {
+        if (slotNumber < 0 || slotNumber >= slots.length) {
+            return null;
+        }
+        return slots[slotNumber];
+    }
+}
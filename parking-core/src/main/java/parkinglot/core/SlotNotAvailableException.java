@@ -0,0 +1,7 @@
+package parkinglot.core;
+
+public class SlotNotAvailableException extends Exception {
+    public SlotNotAvailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,283 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.time.*;
+
+// Renders tickets, receipts and vehicle details as fixed-width boxes into a
+// reusable UTF-8 buffer, written out with one call. Box lines, titles and labels
+// are encoded once; values are appended digit by digit and char by char, so a
+// render allocates nothing once the buffer has grown to fit. Values too long for
+// a row are cut at the right border. Not thread-safe - use local() for this
+// thread's renderer.
+public final class TicketRenderer {
+    private static final int WIDTH = 43; // columns between the borders
+    private static final ThreadLocal<TicketRenderer> RENDERERS = ThreadLocal.withInitial(TicketRenderer::new);
+    
+    private static final byte[] TOP = line('╔', '═', '╗');
+    private static final byte[] SEPARATOR = line('╠', '═', '╣');
+    private static final byte[] BOTTOM = line('╚', '═', '╝');
+    private static final byte[] ROW_START = utf8("║ ");
+    private static final byte[] ROW_END = utf8("║\n");
+    private static final byte[] TICKET_TITLE = title("PARKING TICKET");
+    private static final byte[] RECEIPT_TITLE = title("PARKING RECEIPT");
+    private static final byte[] VEHICLE_TITLE = title("VEHICLE DETAILS");
+    private static final byte[] TICKET_FOOTER = utf8("   Please keep this ticket safe!\n");
+    private static final byte[] RECEIPT_FOOTER = utf8("    Thank you for parking with us!\n");
+    private static final byte[] PARKED_MESSAGE = utf8("\n✓ Vehicle parked successfully!\n");
+    private static final String[] MONTHS =
+        { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+    
+    private byte[] buffer = new byte[2048];
+    private int length;
+    private int column; // columns used in the current row
+    private int limit = WIDTH; // text past this column is cut; history rows are not cut
+    private int cellEnd;
+    private final byte[] digits = new byte[20];
+    
+    public static TicketRenderer local() {
+        return RENDERERS.get();
+    }
+    
+    public TicketRenderer ticket(ParkingTicket ticket) {
+        length = 0;
+        return ticketBox(ticket);
+    }
+    
+    // Success line and ticket together, for one write per park
+    public TicketRenderer parked(ParkingTicket ticket) {
+        length = 0;
+        raw(PARKED_MESSAGE);
+        return ticketBox(ticket);
+    }
+    
+    private TicketRenderer ticketBox(ParkingTicket ticket) {
+        raw((byte) '\n').raw(TOP).raw(TICKET_TITLE).raw(SEPARATOR);
+        row("Ticket ID: ").text(ticket.getTicketId()).endRow();
+        row("Vehicle: ").text(ticket.getVehicleNumber()).endRow();
+        row("Slot: ").number(ticket.getSlotNumber());
+        if (ticket.getSlotCount() > 1) {
+            text("-").number(ticket.getSlotNumber() + ticket.getSlotCount() - 1);
+        }
+        endRow();
+        row("Entry Time: ").time(ticket.getIssueTime()).endRow();
+        return raw(BOTTOM).raw(TICKET_FOOTER);
+    }
+    
+    public TicketRenderer receipt(Vehicle vehicle, long charges) {
+        length = 0;
+        raw((byte) '\n').raw(TOP).raw(RECEIPT_TITLE).raw(SEPARATOR);
+        row("Vehicle: ").text(vehicle.getVehicleNumber()).endRow();
+        row("Type: ");
+        vehicle.renderVehicleType(this);
+        endRow();
+        row("Entry: ").time(vehicle.getEntryTime()).endRow();
+        row("Exit:  ").time(vehicle.getExitTime()).endRow();
+        row("Duration: ").number(vehicle.getParkingDuration()).text(" minutes").endRow();
+        row("CHARGES: ").money(charges).endRow();
+        return raw(BOTTOM).raw(RECEIPT_FOOTER);
+    }
+    
+    TicketRenderer vehicleInfo(Vehicle vehicle) {
+        length = 0;
+        raw(TOP).raw(VEHICLE_TITLE).raw(SEPARATOR);
+        row("Vehicle Number: ").text(vehicle.getVehicleNumber()).endRow();
+        row("Owner: ").text(vehicle.getOwnerName()).endRow();
+        row("Phone: ").text(vehicle.getPhoneNumber()).endRow();
+        row("Type: ");
+        vehicle.renderVehicleType(this);
+        endRow();
+        row("Entry Time: ").time(vehicle.getEntryTime()).endRow();
+        if (vehicle.getExitTime() != null) {
+            row("Exit Time: ").time(vehicle.getExitTime()).endRow();
+        }
+        row("Duration: ").number(vehicle.getParkingDuration()).text(" minutes").endRow();
+        return raw(BOTTOM);
+    }
+    
+    // Rows of the history table - %-10s %-15s %-20s %-15s %-15s then the charges
+    public TicketRenderer history(List<ParkingRecord> records) {
+        length = 0;
+        for (ParkingRecord record : records) {
+            historyCells(record).raw((byte) '\n');
+        }
+        return this;
+    }
+    
+    public TicketRenderer historyRow(ParkingRecord record) {
+        length = 0;
+        return historyCells(record);
+    }
+    
+    private TicketRenderer historyCells(ParkingRecord record) {
+        limit = Integer.MAX_VALUE;
+        column = 0;
+        cell(10).text(record.getRecordId()).pad();
+        cell(15).text(record.getVehicleNumber()).pad();
+        cell(20).text(record.getVehicleType()).pad();
+        cell(15).shortTime(record.getEntryTime()).pad();
+        cell(15).shortTime(record.getExitTime()).pad();
+        money(record.getCharges());
+        limit = WIDTH;
+        return this;
+    }
+    
+    // Next history cell ends at this many columns, then one space
+    private TicketRenderer cell(int width) {
+        cellEnd = column + width;
+        return this;
+    }
+    
+    private TicketRenderer pad() {
+        ensure(Math.max(0, cellEnd - column) + 1);
+        while (column < cellEnd) {
+            buffer[length++] = ' ';
+            column++;
+        }
+        buffer[length++] = ' ';
+        column++;
+        return this;
+    }
+    
+    // dd-MMM HH:mm, the history table's date format
+    private TicketRenderer shortTime(LocalDateTime time) {
+        twoDigits(time.getDayOfMonth()).text("-").text(MONTHS[time.getMonthValue() - 1]).text(" ");
+        return twoDigits(time.getHour()).text(":").twoDigits(time.getMinute());
+    }
+    
+    public String asString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    // One write for the whole render
+    public void printTo(PrintStream out) {
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+    
+    int length() { return length; }
+    
+    // Row values - text is cut at the right border
+    TicketRenderer text(String value) {
+        String text = (value == null) ? "null" : value;
+        for (int i = 0; i < text.length() && column < limit; i++) {
+            char c = text.charAt(i);
+            if (Character.isSurrogate(c)) {
+                c = '?';
+            }
+            ensure(3);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            column++;
+        }
+        return this;
+    }
+    
+    TicketRenderer number(long value) {
+        if (value < 0) {
+            text("-");
+            if (value == Long.MIN_VALUE) {
+                return text("9223372036854775808");
+            }
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensure(count);
+        while (count > 0 && column < limit) {
+            buffer[length++] = digits[--count];
+            column++;
+        }
+        return this;
+    }
+    
+    // dd-MMM-yyyy HH:mm:ss, the console's date format
+    TicketRenderer time(LocalDateTime time) {
+        twoDigits(time.getDayOfMonth()).text("-").text(MONTHS[time.getMonthValue() - 1]).text("-")
+            .number(time.getYear()).text(" ");
+        return twoDigits(time.getHour()).text(":").twoDigits(time.getMinute()).text(":").twoDigits(time.getSecond());
+    }
+    
+    // ₹123.45, as Money.format
+    TicketRenderer money(long paise) {
+        text("₹");
+        if (paise < 0) {
+            text("-");
+        }
+        long abs = Math.abs(paise);
+        return number(abs / Money.PAISE_PER_RUPEE).text(".").twoDigits(abs % Money.PAISE_PER_RUPEE);
+    }
+    
+    private TicketRenderer twoDigits(long value) {
+        if (value < 10) {
+            text("0");
+        }
+        return number(value);
+    }
+    
+    private TicketRenderer row(String label) {
+        raw(ROW_START);
+        column = 1;
+        return text(label);
+    }
+    
+    private TicketRenderer endRow() {
+        ensure(WIDTH - column);
+        while (column < WIDTH) {
+            buffer[length++] = ' ';
+            column++;
+        }
+        return raw(ROW_END);
+    }
+    
+    private TicketRenderer raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+    
+    private TicketRenderer raw(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+        return this;
+    }
+    
+    private void ensure(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+    
+    private static byte[] line(char left, char fill, char right) {
+        char[] chars = new char[WIDTH + 2];
+        Arrays.fill(chars, fill);
+        chars[0] = left;
+        chars[WIDTH + 1] = right;
+        return utf8(new String(chars) + "\n");
+    }
+    
+    private static byte[] title(String title) {
+        int left = (WIDTH - title.length()) / 2;
+        char[] chars = new char[WIDTH];
+        Arrays.fill(chars, ' ');
+        title.getChars(0, title.length(), chars, left);
+        return utf8("║" + new String(chars) + "║\n");
+    }
+    
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package parkinglot.core;
+
+// Truck class
+public class Truck extends Vehicle {
+    private int loadCapacity;
+    private static final long BASE_RATE = Money.rupees(50); // per hour
+    private static final long ADDITIONAL_RATE = Money.rupees(30);
+    
+    public Truck(String vehicleNumber, String ownerName, String phoneNumber, int loadCapacity) {
+        super(vehicleNumber, ownerName, phoneNumber);
+        this.loadCapacity = loadCapacity;
+    }
+    
+    @Override
+    public long calculateParkingCharges() {
+        long minutes = getParkingDuration();
+        long hours = (minutes + 59) / 60; // started hours
+        long baseCharge = (hours <= 2) ? hours * BASE_RATE : (2 * BASE_RATE) + ((hours - 2) * ADDITIONAL_RATE);
+        
+        // Additional charge based on capacity
+        long capacityCharge = (loadCapacity > 5) ? Money.rupees(100) : 0;
+        return baseCharge + capacityCharge;
+    }
+    
+    public int getLoadCapacity() { return loadCapacity; }
+    
+    @Override
+    public String getVehicleType() {
+        return "Truck (" + loadCapacity + " tons)";
+    }
+    
+    @Override
+    void renderVehicleType(TicketRenderer out) {
+        out.text("Truck (").number(loadCapacity).text(" tons)");
+    }
+    
+    @Override
+    public VehicleCategory getCategory() {
+        return VehicleCategory.TRUCK;
+    }
+    
+    @Override
+    public int getRequiredSlots() {
+        return 2; // Truck takes 2 slots
+    }
+}
@@ -0,0 +1,80 @@
+package parkinglot.core;
+
+import java.util.concurrent.atomic.*;
+import java.time.*;
+
+// Abstract Vehicle class
+public abstract class Vehicle {
+    private String vehicleNumber;
+    private String ownerName;
+    private String phoneNumber;
+    protected LocalDateTime entryTime; // set by the lot on park
+    protected LocalDateTime exitTime;
+    private ParkingClock clock; // the lot's, null until parked
+    
+    // Static counter for tracking vehicles (striped, gates never contend on it)
+    private static final LongAdder totalVehiclesProcessed = new LongAdder();
+    
+    // Final constant for parking area code
+    protected final String PARKING_AREA_CODE = "MLP";
+    
+    // Constructor
+    public Vehicle(String vehicleNumber, String ownerName, String phoneNumber) {
+        this.vehicleNumber = vehicleNumber.toUpperCase();
+        this.ownerName = ownerName;
+        this.phoneNumber = phoneNumber;
+        totalVehiclesProcessed.increment();
+    }
+    
+    // Getters (Encapsulation)
+    public String getVehicleNumber() { return vehicleNumber; }
+    public String getOwnerName() { return ownerName; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public LocalDateTime getEntryTime() { return entryTime; }
+    public LocalDateTime getExitTime() { return exitTime; }
+    
+    // The lot stamps the exit time when the vehicle leaves
+    void setExitTime(LocalDateTime exitTime) {
+        this.exitTime = exitTime;
+    }
+    
+    // Journal replay restores the original entry time
+    void setEntryTime(LocalDateTime entryTime) {
+        this.entryTime = entryTime;
+    }
+    
+    // Durations of a parked vehicle run on the clock of the lot it is parked in
+    void setClock(ParkingClock clock) {
+        this.clock = clock;
+    }
+    
+    // Abstract methods - must be implemented by child classes
+    public abstract long calculateParkingCharges(); // in paise
+    public abstract String getVehicleType(); // display only
+    abstract void renderVehicleType(TicketRenderer out); // same text as getVehicleType, no garbage
+    public abstract VehicleCategory getCategory();
+    public abstract int getRequiredSlots();
+    
+    // Concrete method
+    public long getParkingDuration() {
+        if (entryTime == null) {
+            return 0; // not parked yet
+        }
+        LocalDateTime exit = (exitTime != null) ? exitTime : clock.now();
+        return Duration.between(entryTime, exit).toMinutes();
+    }
+    
+    public void displayVehicleInfo() {
+        TicketRenderer.local().vehicleInfo(this).printTo(System.out);
+    }
+    
+    // Static method
+    public static long getTotalVehiclesProcessed() {
+        return totalVehiclesProcessed.sum();
+    }
+    
+    // Vehicles rebuilt from the journal or a snapshot were processed by an earlier run
+    static void discountRestored() {
+        totalVehiclesProcessed.decrement();
+    }
+}
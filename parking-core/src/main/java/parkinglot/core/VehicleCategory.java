@@ -0,0 +1,6 @@
+package parkinglot.core;
+
+// Vehicle category - ordinal indexes the per-category slot pools
+public enum VehicleCategory {
+    CAR, BIKE, TRUCK
+}
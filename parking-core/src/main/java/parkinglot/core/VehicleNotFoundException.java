@@ -0,0 +1,7 @@
+package parkinglot.core;
+
+public class VehicleNotFoundException extends Exception {
+    public VehicleNotFoundException(String message) {
+        super(message);
+    }
+}
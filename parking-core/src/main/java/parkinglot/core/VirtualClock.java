@@ -0,0 +1,29 @@
+package parkinglot.core;
+
+import java.time.*;
+
+// Clock that only moves when told to, for simulation, replay and tests. Its
+// local time is UTC, so millis() and now() agree without a time zone.
+public final class VirtualClock implements ParkingClock {
+    private volatile long millis;
+    private volatile LocalDateTime now;
+    
+    public VirtualClock(LocalDateTime start) {
+        set(start);
+    }
+    
+    public synchronized void set(LocalDateTime time) {
+        now = time;
+        millis = time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+    }
+    
+    public synchronized void advanceMillis(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Clock cannot go back: " + delta);
+        }
+        set(now.plusNanos(delta * 1_000_000));
+    }
+    
+    public long millis() { return millis; }
+    public LocalDateTime now() { return now; }
+}
@@ -0,0 +1,17 @@
+package parkinglot.core;
+
+import java.util.*;
+
+// Comma-separated option values for the stress drivers, e.g. "--capacity 1000,70000".
+// Test sources only - the engine artifact parses no command lines.
+final class CommandLineLists {
+    private CommandLineLists() {}
+    
+    static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+    
+    static double[] parseDoubles(String csv) {
+        return Arrays.stream(csv.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+}
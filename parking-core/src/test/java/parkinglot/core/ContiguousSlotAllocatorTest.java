@@ -0,0 +1,148 @@
+package parkinglot.core;
+
+import java.util.*;
+
+// Randomized test for ContiguousSlotAllocator - allocates, claims and releases runs
+// at random and checks every result against a plain boolean array searched by
+// linear scan: the run allocate picks, whether a claim succeeds, which releases are
+// refused, and after each step the free count, every slot's state, the largest free
+// run and the number of free runs.
+// Run with: java -ea -cp <classes> parkinglot.core.ContiguousSlotAllocatorTest
+//     [--capacity 1,2,3,7,20,64,100,1023] [--ops 20000] [--seed 1]
+// Exits with status 1 on the first capacity that disagrees, printing the step; the
+// core module's test phase runs it with the defaults.
+final class ContiguousSlotAllocatorTest {
+    
+    public static void main(String[] args) {
+        int[] capacities = { 1, 2, 3, 7, 20, 64, 100, 1023 };
+        int ops = 20000;
+        long seed = 1;
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--capacity": capacities = CommandLineLists.parseInts(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        boolean passed = true;
+        for (int capacity : capacities) {
+            passed &= run(capacity, ops, seed);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+    
+    // One capacity; true when the allocator matched the reference at every step
+    private static boolean run(int capacity, int ops, long seed) {
+        ContiguousSlotAllocator allocator = new ContiguousSlotAllocator(capacity);
+        boolean[] taken = new boolean[capacity];
+        List<int[]> held = new ArrayList<>(); // {firstIndex, slots} of runs handed out
+        Random random = new Random(seed * 31 + capacity);
+        int maxRun = Math.min(capacity + 1, 8); // sometimes more than fits
+        
+        String failure = null;
+        int step = 0;
+        for (; step < ops && failure == null; step++) {
+            int choice = random.nextInt(10);
+            if (choice < 4) {
+                int slots = 1 + random.nextInt(maxRun);
+                int expected = lowestFreeRun(taken, slots);
+                int actual = allocator.allocate(slots);
+                if (actual != expected) {
+                    failure = "allocate(" + slots + ") returned " + actual + ", expected " + expected;
+                } else if (actual >= 0) {
+                    take(taken, actual, slots, true);
+                    held.add(new int[] { actual, slots });
+                }
+            } else if (choice < 6) {
+                // Any run, in range or not, as journal replay might ask for
+                int first = random.nextInt(capacity + 2) - 1;
+                int slots = random.nextInt(maxRun + 1);
+                boolean expected = first >= 0 && slots >= 1 && first + slots <= capacity
+                    && lowestFreeRun(Arrays.copyOfRange(taken, first, first + slots), slots) == 0;
+                boolean actual = allocator.claim(first, slots);
+                if (actual != expected) {
+                    failure = "claim(" + first + ", " + slots + ") returned " + actual + ", expected " + expected;
+                } else if (actual) {
+                    take(taken, first, slots, true);
+                    held.add(new int[] { first, slots });
+                }
+            } else if (choice < 9 && !held.isEmpty()) {
+                int[] run = held.remove(random.nextInt(held.size()));
+                allocator.release(run[0], run[1]);
+                take(taken, run[0], run[1], false);
+            } else {
+                // A release touching a free slot must be refused and change nothing
+                int first = random.nextInt(capacity);
+                int slots = 1 + random.nextInt(Math.min(maxRun, capacity - first));
+                if (lowestFreeRun(Arrays.copyOfRange(taken, first, first + slots), 1) >= 0) {
+                    try {
+                        allocator.release(first, slots);
+                        failure = "release(" + first + ", " + slots + ") of a free slot was accepted";
+                    } catch (IllegalStateException e) {
+                        // refused
+                    }
+                }
+            }
+            if (failure == null) {
+                failure = compare(allocator, taken);
+            }
+        }
+        
+        boolean passed = failure == null;
+        System.out.printf("%s capacity=%d ops=%d free=%d largestRun=%d runs=%d%s%n",
+            passed ? "✓" : "✗", capacity, step, allocator.getFreeCount(), allocator.getLargestFreeRun(),
+            allocator.getFreeRunCount(), passed ? "" : " - step " + (step - 1) + ": " + failure);
+        return passed;
+    }
+    
+    private static void take(boolean[] taken, int first, int slots, boolean value) {
+        Arrays.fill(taken, first, first + slots, value);
+    }
+    
+    // Reference search - first index of the lowest run of `slots` free slots, or -1
+    private static int lowestFreeRun(boolean[] taken, int slots) {
+        int run = 0;
+        for (int i = 0; i < taken.length; i++) {
+            run = taken[i] ? 0 : run + 1;
+            if (run == slots) {
+                return i - slots + 1;
+            }
+        }
+        return -1;
+    }
+    
+    // Null when the allocator agrees with the reference slot by slot and in its metrics
+    private static String compare(ContiguousSlotAllocator allocator, boolean[] taken) {
+        int free = 0;
+        int largest = 0;
+        int runs = 0;
+        int run = 0;
+        for (int i = 0; i < taken.length; i++) {
+            if (allocator.isFree(i) == taken[i]) {
+                return "slot " + i + " is " + (taken[i] ? "free" : "taken") + " in the allocator";
+            }
+            if (taken[i]) {
+                run = 0;
+                continue;
+            }
+            free++;
+            runs += (run == 0) ? 1 : 0;
+            largest = Math.max(largest, ++run);
+        }
+        if (allocator.getFreeCount() != free) {
+            return "free count " + allocator.getFreeCount() + ", expected " + free;
+        }
+        if (allocator.getLargestFreeRun() != largest) {
+            return "largest free run " + allocator.getLargestFreeRun() + ", expected " + largest;
+        }
+        if (allocator.getFreeRunCount() != runs) {
+            return "free runs " + allocator.getFreeRunCount() + ", expected " + runs;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,306 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.time.*;
+
+// Durability driver for EventJournal - journals parks and exits of a real lot,
+// damages the segment files the way a crash or a bad disk would, and reopens:
+// - torn tail: the last record is damaged or cut short; reopening drops just that
+//   record, and events appended after it survive the next restart
+// - corrupt record mid-segment: a damaged record with intact ones after it, in the
+//   active or a sealed segment, fails open or replay instead of being skipped
+// - roll across segments: small segments, so the journal rolls many times and
+//   replay must read them all in order, before and after further appends
+// After each reopen the replayed lot must match the lot that wrote the journal:
+// parked vehicles with their slots and entry times, revenue and history size.
+// Run with: java -ea -cp <classes> parkinglot.core.EventJournalDurabilityTest
+// Exits with status 1 if any case fails; the core module's test phase runs it.
+final class EventJournalDurabilityTest {
+    private static final int SMALL_SEGMENT_BYTES = 1024;
+    private static final int RECORD_HEADER_BYTES = 8;
+    
+    private static final List<String> failures = new ArrayList<>();
+    private static int plates;
+    
+    public static void main(String[] args) throws Exception {
+        tornTail(false);
+        tornTail(true);
+        corruptMidSegment();
+        corruptSealedSegment();
+        rollAcrossSegments();
+        
+        for (String failure : failures) {
+            System.out.println("✗ " + failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+    
+    // Five parks, the last one torn; reopening replays four, and later appends survive a restart
+    private static void tornTail(boolean cutShort) throws Exception {
+        String name = cutShort ? "torn tail (record cut short)" : "torn tail (record damaged)";
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            VirtualClock clock = newClock();
+            ParkingLotSystem lot = new ParkingLotSystem(10, 10, 4, clock);
+            EventJournal journal = open(lot, directory, EventJournal.DEFAULT_SEGMENT_BYTES);
+            List<String> states = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                park(lot, clock, i % 3);
+                states.add(state(lot));
+            }
+            journal.close();
+            
+            Path segment = lastSegment(directory);
+            List<Integer> records = recordOffsets(segment);
+            int last = records.get(records.size() - 1);
+            if (cutShort) {
+                // A crash mid-copy - the header and part of the body made it
+                int length = readInt(segment, last);
+                zero(segment, last + RECORD_HEADER_BYTES + length / 2, length - length / 2);
+            } else {
+                flip(segment, last + RECORD_HEADER_BYTES + 2);
+            }
+            
+            ParkingLotSystem reopened = new ParkingLotSystem(10, 10, 4, clock);
+            journal = new EventJournal(directory);
+            long replayed = reopened.recover(journal);
+            check(name, replayed == 4, "replayed " + replayed + " events, expected 4");
+            check(name, state(reopened).equals(states.get(3)), "replayed lot differs from the lot after 4 parks");
+            
+            park(reopened, clock, 0);
+            reopened.exitVehicle(firstParked(reopened));
+            String expected = state(reopened);
+            journal.close();
+            
+            ParkingLotSystem restarted = new ParkingLotSystem(10, 10, 4, clock);
+            journal = new EventJournal(directory);
+            replayed = restarted.recover(journal);
+            journal.close();
+            check(name, replayed == 6, "after the restart replayed " + replayed + " events, expected 6");
+            check(name, state(restarted).equals(expected), "appends after the torn tail did not survive a restart");
+            report(name, null);
+        } finally {
+            delete(directory);
+        }
+    }
+    
+    // A damaged record with intact ones after it in the active segment - open must refuse
+    private static void corruptMidSegment() throws Exception {
+        String name = "corrupt record mid-segment";
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            VirtualClock clock = newClock();
+            ParkingLotSystem lot = new ParkingLotSystem(10, 10, 4, clock);
+            EventJournal journal = open(lot, directory, EventJournal.DEFAULT_SEGMENT_BYTES);
+            for (int i = 0; i < 5; i++) {
+                park(lot, clock, i % 3);
+            }
+            journal.close();
+            
+            Path segment = lastSegment(directory);
+            flip(segment, recordOffsets(segment).get(1) + RECORD_HEADER_BYTES + 2);
+            byte[] before = Files.readAllBytes(segment);
+            try {
+                new EventJournal(directory).close();
+                check(name, false, "opened past a damaged record with intact records after it");
+            } catch (IOException e) {
+                check(name, e.getMessage().contains("Corrupt journal record"), "unexpected failure: " + e);
+            }
+            check(name, Arrays.equals(before, Files.readAllBytes(segment)),
+                "the refused open changed the segment");
+            report(name, null);
+        } finally {
+            delete(directory);
+        }
+    }
+    
+    // A damaged record in a sealed segment - open succeeds, replay must refuse
+    private static void corruptSealedSegment() throws Exception {
+        String name = "corrupt record in a sealed segment";
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            VirtualClock clock = newClock();
+            ParkingLotSystem lot = new ParkingLotSystem(50, 50, 10, clock);
+            EventJournal journal = open(lot, directory, SMALL_SEGMENT_BYTES);
+            for (int i = 0; i < 40; i++) {
+                park(lot, clock, i % 3);
+            }
+            journal.close();
+            
+            Path first = segments(directory).get(0);
+            flip(first, recordOffsets(first).get(1) + RECORD_HEADER_BYTES + 2);
+            journal = new EventJournal(directory, SMALL_SEGMENT_BYTES);
+            try {
+                new ParkingLotSystem(50, 50, 10, clock).recover(journal);
+                check(name, false, "replayed past a damaged record in a sealed segment");
+            } catch (IOException e) {
+                check(name, e.getMessage().contains("Corrupt journal record"), "unexpected failure: " + e);
+            } finally {
+                journal.close();
+            }
+            report(name, null);
+        } finally {
+            delete(directory);
+        }
+    }
+    
+    // Parks and exits over many small segments, replayed after each of several reopens
+    private static void rollAcrossSegments() throws Exception {
+        String name = "roll across segments";
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            VirtualClock clock = newClock();
+            Random random = new Random(1);
+            ParkingLotSystem lot = new ParkingLotSystem(20, 20, 6, clock);
+            EventJournal journal = open(lot, directory, SMALL_SEGMENT_BYTES);
+            long events = 0;
+            for (int reopen = 0; reopen < 3; reopen++) {
+                for (int i = 0; i < 150; i++) {
+                    String parked = firstParked(lot);
+                    if (parked != null && random.nextInt(3) == 0) {
+                        clock.advanceMillis(60_000L * (1 + random.nextInt(300)));
+                        lot.exitVehicle(parked);
+                        events++;
+                    } else if (park(lot, clock, random.nextInt(3))) {
+                        events++;
+                    }
+                }
+                String expected = state(lot);
+                journal.close();
+                
+                lot = new ParkingLotSystem(20, 20, 6, clock);
+                journal = new EventJournal(directory, SMALL_SEGMENT_BYTES);
+                long replayed = lot.recover(journal);
+                check(name, replayed == events, "reopen " + reopen + " replayed " + replayed + " of " + events);
+                check(name, state(lot).equals(expected), "reopen " + reopen + " replayed a different lot");
+            }
+            int segments = segments(directory).size();
+            journal.close();
+            check(name, segments > 10, "only " + segments + " segments - the journal did not roll");
+            report(name, segments + " segments");
+        } finally {
+            delete(directory);
+        }
+    }
+    
+    private static EventJournal open(ParkingLotSystem lot, Path directory, int segmentBytes) throws IOException {
+        EventJournal journal = new EventJournal(directory, segmentBytes);
+        lot.recover(journal);
+        return journal;
+    }
+    
+    private static VirtualClock newClock() {
+        return new VirtualClock(LocalDateTime.of(2024, 1, 1, 8, 0));
+    }
+    
+    // Park a new car, bike or truck a minute after the last event; false when the lot is full
+    private static boolean park(ParkingLotSystem lot, VirtualClock clock, int kind) throws Exception {
+        clock.advanceMillis(60_000);
+        String number = "JD" + (plates++);
+        Vehicle vehicle;
+        switch (kind) {
+            case 0: vehicle = new Car(number, "Owner " + number, "9000000000", "Model"); break;
+            case 1: vehicle = new Bike(number, "Owner " + number, "9000000000", "Model"); break;
+            default: vehicle = new Truck(number, "Owner " + number, "9000000000", 12); break;
+        }
+        try {
+            lot.parkVehicle(vehicle);
+            return true;
+        } catch (ParkingFullException e) {
+            return false;
+        }
+    }
+    
+    private static String firstParked(ParkingLotSystem lot) {
+        return new TreeSet<>(lot.getParkedVehicles().keySet()).stream().findFirst().orElse(null);
+    }
+    
+    // Everything a replay must restore, in a comparable form
+    private static String state(ParkingLotSystem lot) {
+        StringBuilder state = new StringBuilder();
+        for (String number : new TreeSet<>(lot.getParkedVehicles().keySet())) {
+            ParkingTicket ticket = lot.getTicket(number);
+            state.append(number).append('@').append(ticket.getSlotNumber()).append('+').append(ticket.getSlotCount())
+                .append(' ').append(lot.getParkedVehicles().get(number).getEntryTime()).append('\n');
+        }
+        return state.append("revenue ").append(lot.getTotalRevenuePaise())
+            .append(" history ").append(lot.getHistorySize()).toString();
+    }
+    
+    private static void check(String name, boolean condition, String message) {
+        if (!condition) {
+            failures.add(name + ": " + message);
+        }
+    }
+    
+    private static void report(String name, String detail) {
+        if (failures.stream().noneMatch(failure -> failure.startsWith(name + ":"))) {
+            System.out.println("✓ " + name + (detail == null ? "" : " (" + detail + ")"));
+        }
+    }
+    
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().startsWith("journal-")).sorted()
+                .forEach(segments::add);
+            return segments;
+        }
+    }
+    
+    private static Path lastSegment(Path directory) throws IOException {
+        List<Path> segments = segments(directory);
+        return segments.get(segments.size() - 1);
+    }
+    
+    // Offsets of the records in a segment: [int length][int crc][body], a zero length ends it
+    private static List<Integer> recordOffsets(Path segment) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Integer> offsets = new ArrayList<>();
+        int position = 8; // magic, version
+        while (position + RECORD_HEADER_BYTES <= bytes.limit() && bytes.getInt(position) > 0) {
+            offsets.add(position);
+            position += RECORD_HEADER_BYTES + bytes.getInt(position);
+        }
+        return offsets;
+    }
+    
+    private static int readInt(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer value = ByteBuffer.allocate(4);
+            channel.read(value, position);
+            return value.getInt(0);
+        }
+    }
+    
+    private static void flip(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0)).rewind();
+            channel.write(value, position);
+        }
+    }
+    
+    private static void zero(Path file, int position, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(length), position);
+        }
+    }
+    
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,302 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.time.*;
+
+// Restart driver for LotSnapshot - runs a journaled lot through several cycles, each
+// in a fresh JVM so ticket and record ids start from nothing, as after a real
+// restart. A cycle recovers the lot, checks it against what the previous cycle left
+// behind, then parks and exits vehicles with snapshots in between and a tail of
+// events after the last one. Checked after every restart:
+// - parked vehicles with their slots and entry times, revenue and history size
+// - history content, read both page by page and in one pass, and the column totals;
+//   the history window is small, so older records come from the segments the
+//   snapshots' shadow lots spilled into the journal directory and this lot adopted
+// - id advancement: record ids rise through the whole history, and tickets and
+//   records issued after the restart are numbered above every earlier one. Odd
+//   cycles end on a snapshot taken after the newest vehicle left, so the journal
+//   tail holds no id and only the snapshot's id bounds can keep new ids clear
+// Cycle 2 ends in the crash window between the snapshot rename and compaction (the
+// previous snapshot and the segments the new one covers are put back); cycle 3
+// leaves an unfinished snapshot. Reopening must clean both up and apply nothing twice.
+// Run with: java -ea -cp <classes> parkinglot.core.LotSnapshotRestartTest [--cycles 5]
+// Exits with status 1 if any cycle fails; the core module's test phase runs it.
+final class LotSnapshotRestartTest {
+    private static final int[] LOT = { 200, 200, 40 };
+    private static final int WINDOW = 512; // history spills after WINDOW + SEGMENT_RECORDS records
+    private static final int SEGMENT_BYTES = 64 << 10;
+    private static final int SNAPSHOTS = 3; // per cycle, each after OPS events
+    private static final int OPS = 3000;
+    private static final int CRASH_AFTER_RENAME = 2;
+    private static final int UNFINISHED_SNAPSHOT = 3;
+    
+    private static final List<String> failures = new ArrayList<>();
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 4 && args[0].equals("--cycle")) {
+            cycle(Paths.get(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            for (String failure : failures.subList(0, Math.min(5, failures.size()))) {
+                System.out.println("✗ " + failure);
+            }
+            System.exit(failures.isEmpty() ? 0 : 1);
+        }
+        
+        int cycles = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--cycles": cycles = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        // One JVM per cycle, and a last one that only recovers and checks
+        Path root = Files.createTempDirectory("snapshot-test");
+        try {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (int cycle = 0; cycle <= cycles; cycle++) {
+                Process process = new ProcessBuilder(java, "-ea", "-cp", System.getProperty("java.class.path"),
+                    LotSnapshotRestartTest.class.getName(), "--cycle", root.toString(), String.valueOf(cycle),
+                    String.valueOf(cycles)).inheritIO().start();
+                if (process.waitFor() != 0) {
+                    System.exit(1);
+                }
+            }
+        } finally {
+            delete(root);
+        }
+    }
+    
+    // Recover and check against the previous cycle, then run this cycle's events unless it is the last
+    private static void cycle(Path root, int cycle, int cycles) throws Exception {
+        String name = "cycle " + cycle;
+        Path directory = root.resolve("journal");
+        Path expectedFile = root.resolve("expected.properties");
+        Properties expected = new Properties();
+        if (cycle > 0) {
+            try (Reader in = Files.newBufferedReader(expectedFile)) {
+                expected.load(in);
+            }
+        }
+        VirtualClock clock = new VirtualClock(cycle == 0 ? LocalDateTime.of(2024, 1, 1, 8, 0)
+            : LocalDateTime.parse(expected.getProperty("clock")));
+        ParkingLotSystem lot = new ParkingLotSystem(LOT[0], LOT[1], LOT[2], new ParkingHistory(WINDOW, null), clock);
+        EventJournal journal = new EventJournal(directory, SEGMENT_BYTES);
+        lot.recover(journal);
+        
+        long ticketBound = 0;
+        long recordBound = 0;
+        if (cycle > 0) {
+            check(name, state(lot).equals(expected.getProperty("state")),
+                "recovered lot differs from the lot that wrote the journal:\n" + firstDifference(state(lot),
+                    expected.getProperty("state")));
+            check(name, files(directory, "snapshot-").size() == 1, "snapshots left after open: "
+                + files(directory, "snapshot-"));
+            ticketBound = Long.parseLong(expected.getProperty("ticket"));
+            recordBound = Long.parseLong(expected.getProperty("record"));
+        }
+        int adopted = files(directory, "history-").size();
+        if (cycle == cycles) {
+            journal.close();
+            check(name, adopted > 0, "no history segment was spilled into the journal directory");
+            report(name, "recovered, " + lot.getHistorySize() + " history records, " + adopted
+                + " history segments in the journal directory");
+            return;
+        }
+        
+        Random random = new Random(cycle);
+        List<String> parked = new ArrayList<>(new TreeSet<>(lot.getParkedVehicles().keySet()));
+        long[] issued = { ticketBound, recordBound };
+        int plates = 0;
+        String newest = null;
+        boolean endOnSnapshot = (cycle % 2 == 1);
+        Path backup = root.resolve("backup");
+        for (int s = 0; s <= SNAPSHOTS; s++) {
+            for (int i = 0; i < OPS; i++) {
+                if (!parked.isEmpty() && random.nextInt(5) < 2) {
+                    clock.advanceMillis(60_000L * (1 + random.nextInt(300)));
+                    int pick = random.nextInt(parked.size());
+                    String number = parked.get(pick);
+                    parked.set(pick, parked.get(parked.size() - 1));
+                    parked.remove(parked.size() - 1);
+                    issued[1] = exit(lot, number, issued[1], name);
+                } else {
+                    clock.advanceMillis(60_000);
+                    String number = "S" + cycle + "-" + (plates++);
+                    try {
+                        long id = idNumber(lot.parkVehicle(newVehicle(random.nextInt(3), number)).getTicketId());
+                        check(name, id > issued[0], "ticket id " + id + " issued after " + issued[0]);
+                        issued[0] = Math.max(issued[0], id);
+                        parked.add(number);
+                        newest = number;
+                    } catch (ParkingFullException e) {
+                        // full - the next exits free it up
+                    }
+                }
+            }
+            if (s == SNAPSHOTS && endOnSnapshot && parked.remove(newest)) {
+                clock.advanceMillis(60_000);
+                issued[1] = exit(lot, newest, issued[1], name);
+            }
+            if (s < SNAPSHOTS || endOnSnapshot) {
+                if (cycle == CRASH_AFTER_RENAME && s == SNAPSHOTS - 1) {
+                    copy(directory, backup);
+                }
+                journal.snapshot(lot);
+            }
+        }
+        String state = state(lot);
+        journal.close();
+        
+        String detail = "";
+        if (cycle == CRASH_AFTER_RENAME) {
+            // Put back what the last snapshot compacted away, as if it crashed right after the rename
+            int restored = 0;
+            for (Path file : files(backup, "")) {
+                Path original = directory.resolve(file.getFileName());
+                if (!Files.exists(original)) {
+                    Files.copy(file, original);
+                    restored++;
+                }
+            }
+            check(name, files(directory, "snapshot-").size() == 2, "no previous snapshot to put back");
+            detail = ", left " + restored + " files a crash after the rename would leave";
+        } else if (cycle == UNFINISHED_SNAPSHOT) {
+            Files.write(directory.resolve("snapshot-99999999.tmp"), new byte[] { 0x50, 0x4C, 0x53 });
+            detail = ", left an unfinished snapshot";
+        }
+        
+        expected.setProperty("clock", clock.now().toString());
+        expected.setProperty("ticket", String.valueOf(issued[0]));
+        expected.setProperty("record", String.valueOf(issued[1]));
+        expected.setProperty("state", state);
+        try (Writer out = Files.newBufferedWriter(expectedFile)) {
+            expected.store(out, null);
+        }
+        report(name, lot.getCurrentlyParked() + " parked, " + lot.getHistorySize() + " history records" + detail);
+    }
+    
+    // Exit a vehicle; returns the record id number, checked to be above every earlier one
+    private static long exit(ParkingLotSystem lot, String number, long issued, String name) throws Exception {
+        long id = idNumber(lot.exitVehicle(number).getRecordId());
+        check(name, id > issued, "record id " + id + " issued after " + issued);
+        return Math.max(issued, id);
+    }
+    
+    private static Vehicle newVehicle(int kind, String number) {
+        switch (kind) {
+            case 0: return new Car(number, "Owner " + number, "9000000000", "Model");
+            case 1: return new Bike(number, "Owner " + number, "9000000000", "Model");
+            default: return new Truck(number, "Owner " + number, "9000000000", 12);
+        }
+    }
+    
+    // Everything a restart must restore, in a comparable form
+    private static String state(ParkingLotSystem lot) {
+        StringBuilder state = new StringBuilder();
+        for (String number : new TreeSet<>(lot.getParkedVehicles().keySet())) {
+            ParkingTicket ticket = lot.getTicket(number);
+            state.append(number).append(' ').append(ticket.getTicketId()).append('@').append(ticket.getSlotNumber())
+                .append('+').append(ticket.getSlotCount()).append(' ')
+                .append(lot.getParkedVehicles().get(number).getEntryTime()).append('\n');
+        }
+        state.append("revenue ").append(lot.getTotalRevenuePaise()).append('\n')
+            .append("history ").append(lot.getHistorySize()).append('\n');
+        
+        // The same records page by page, across segment and tier boundaries, and in one pass
+        ParkingHistory history = lot.getHistory();
+        CRC32 paged = new CRC32();
+        String order = null;
+        long previous = 0;
+        long size = history.size();
+        for (long from = 0; from < size; from += 1000) {
+            for (ParkingRecord record : history.read(from, 1000)) {
+                long id = idNumber(record.getRecordId());
+                if (id <= previous && order == null) {
+                    order = "record " + record.getRecordId() + " after id " + previous;
+                }
+                previous = id;
+                digest(paged, record);
+            }
+        }
+        CRC32 streamed = new CRC32();
+        history.forEach(record -> digest(streamed, record));
+        state.append("records ").append(Long.toHexString(paged.getValue())).append(' ')
+            .append(paged.getValue() == streamed.getValue() ? "" : "read and forEach differ ")
+            .append(order == null ? "" : order).append('\n');
+        
+        HistoryColumns.Totals totals = lot.getHistoryColumns().totals();
+        for (VehicleCategory category : VehicleCategory.values()) {
+            state.append(category).append(' ').append(totals.getVisits(category)).append(" visits ")
+                .append(totals.getRevenuePaise(category)).append(" paise\n");
+        }
+        return state.toString();
+    }
+    
+    private static void digest(CRC32 crc, ParkingRecord record) {
+        String row = record.getRecordId() + '|' + record.getVehicleNumber() + '|' + record.getCategory() + '|'
+            + record.getEntryTime() + '|' + record.getExitTime() + '|' + record.getCharges() + '\n';
+        crc.update(row.getBytes());
+    }
+    
+    private static String firstDifference(String actual, String expected) {
+        String[] a = actual.split("\n");
+        String[] e = expected.split("\n");
+        for (int i = 0; i < Math.max(a.length, e.length); i++) {
+            String left = (i < a.length) ? a[i] : "<none>";
+            String right = (i < e.length) ? e[i] : "<none>";
+            if (!left.equals(right)) {
+                return "  got      " + left + "\n  expected " + right;
+            }
+        }
+        return "";
+    }
+    
+    // TICKET1042 and REC17 -> 1042 and 17
+    private static long idNumber(String id) {
+        int digits = 0;
+        while (!Character.isDigit(id.charAt(digits))) {
+            digits++;
+        }
+        return Long.parseLong(id.substring(digits));
+    }
+    
+    private static void check(String name, boolean condition, String message) {
+        if (!condition) {
+            failures.add(name + ": " + message);
+        }
+    }
+    
+    private static void report(String name, String detail) {
+        if (failures.isEmpty()) {
+            System.out.println("✓ " + name + " (" + detail + ")");
+        }
+    }
+    
+    private static List<Path> files(Path directory, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> matching = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted()
+                .forEach(matching::add);
+            return matching;
+        }
+    }
+    
+    private static void copy(Path directory, Path target) throws IOException {
+        Files.createDirectories(target);
+        for (Path file : files(directory, "")) {
+            Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package parkinglot.core;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.Stream;
+import java.time.*;
+
+// Spill-tier driver for ParkingHistory - record p of every history here is built
+// from p alone, so any read can be checked record by record:
+// - reads while spilling: a writer adds segments' worth of records to a history
+//   with a small window while readers read across the ring/segment boundary and
+//   across segment boundaries, read short runs inside spilled segments (the
+//   offset-table reads of an already verified segment), and page through time
+//   range and category queries. Spills are written one at a time behind the
+//   writer, so most reads overlap an in-flight spill; each must return the
+//   records it asked for, in order, whichever tier they sit in when it starts.
+// - grow on failed spill: the spill directory is a path under a regular file, so
+//   every spill fails; the ring must grow to hold everything, records must stay
+//   readable, and the failure listener fires once for the run. Once the directory
+//   can be created the backlog spills, and a later failure run is reported again.
+// Run with: java -ea -cp <classes> parkinglot.core.ParkingHistorySpillTest
+//     [--window 256] [--segments 16] [--readers 4]
+// Exits with status 1 if any case fails; the core module's test phase runs it
+// with the defaults.
+final class ParkingHistorySpillTest {
+    private static final int SEGMENT = ParkingHistory.SEGMENT_RECORDS;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final long SPILL_TIMEOUT_MILLIS = 30_000;
+    
+    private static final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    
+    public static void main(String[] args) throws Exception {
+        int window = 256;
+        int segments = 16;
+        int readers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--window": window = Integer.parseInt(args[i + 1]); break;
+                case "--segments": segments = Integer.parseInt(args[i + 1]); break;
+                case "--readers": readers = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        readsWhileSpilling(window, segments, readers);
+        growOnFailedSpill(window);
+        
+        for (String failure : failures.subList(0, Math.min(5, failures.size()))) {
+            System.out.println("✗ " + failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+    
+    private static void readsWhileSpilling(int window, int segments, int readers) throws Exception {
+        String name = "reads while spilling";
+        Path directory = Files.createTempDirectory("history-test");
+        try {
+            ParkingHistory history = new ParkingHistory(window, directory);
+            int total = segments * SEGMENT + window + SEGMENT / 2;
+            int expectedSegments = (total - window) / SEGMENT;
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicLong reads = new AtomicLong();
+            AtomicLong inFlight = new AtomicLong(); // reads started with a spill due or being written
+            AtomicLong partial = new AtomicLong(); // short reads inside a spilled segment
+            
+            ExecutorService pool = Executors.newFixedThreadPool(readers);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int r = 0; r < readers; r++) {
+                    long seed = r;
+                    futures.add(pool.submit(() -> {
+                        Random random = new Random(seed);
+                        while (!done.get() && failures.isEmpty()) {
+                            long size = history.size();
+                            long spilled = (long) history.getSegmentCount() * SEGMENT;
+                            if (size == 0) {
+                                continue;
+                            }
+                            if (size - spilled >= window + SEGMENT) {
+                                inFlight.incrementAndGet();
+                            }
+                            reads.incrementAndGet();
+                            switch (random.nextInt(4)) {
+                                case 0: // across the ring/segment boundary
+                                    checkRead(name, history, Math.max(0, spilled - 1 - random.nextInt(300)),
+                                        1 + random.nextInt(600), size);
+                                    break;
+                                case 1: // across a boundary between two segments
+                                    long boundary = SEGMENT * (1 + random.nextInt((int) (size / SEGMENT) + 1));
+                                    checkRead(name, history, Math.max(0, boundary - 1 - random.nextInt(100)),
+                                        1 + random.nextInt(200), size);
+                                    break;
+                                case 2: // a short run inside a spilled segment, sometimes up to its end
+                                    if (spilled > 0) {
+                                        long from = (long) (random.nextDouble() * spilled);
+                                        int toEnd = (int) (SEGMENT - from % SEGMENT);
+                                        checkRead(name, history, from,
+                                            random.nextBoolean() ? toEnd : 1 + random.nextInt(Math.min(40, toEnd)), size);
+                                        partial.incrementAndGet();
+                                    }
+                                    break;
+                                default:
+                                    checkQuery(name, history, random, size);
+                                    break;
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                
+                for (int p = 0; p < total; p++) {
+                    history.add(record(p));
+                    if (p % 64 == 0) {
+                        Thread.yield(); // let readers in between adds as well as between spills
+                    }
+                }
+                awaitSegments(history, expectedSegments);
+                done.set(true);
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            
+            checkRead(name, history, 0, total, total);
+            check(name, history.getSegmentCount() == expectedSegments,
+                history.getSegmentCount() + " segments, expected " + expectedSegments);
+            check(name, inFlight.get() > 0 && partial.get() > 0,
+                "no read overlapped a spill or read inside a spilled segment");
+            report(name, reads.get() + " reads, " + inFlight.get() + " during in-flight spills, " + partial.get()
+                + " inside spilled segments, " + history.getSegmentCount() + " segments");
+        } finally {
+            delete(directory);
+        }
+    }
+    
+    private static void growOnFailedSpill(int window) throws Exception {
+        String name = "grow on failed spill";
+        Path parent = Files.createTempDirectory("history-test");
+        try {
+            Path blocker = parent.resolve("spill");
+            Files.createFile(blocker); // a regular file where the spill directory should be
+            ParkingHistory history = new ParkingHistory(window, blocker.resolve("segments"));
+            AtomicInteger reported = new AtomicInteger();
+            history.onSpillFailure(e -> reported.incrementAndGet());
+            
+            // Several times what the ring holds at first, so it must grow
+            int total = window + 6 * SEGMENT;
+            for (int p = 0; p < total; p++) {
+                history.add(record(p));
+            }
+            drainSpills();
+            check(name, history.getSegmentCount() == 0, "a spill into a path under a regular file succeeded");
+            check(name, reported.get() == 1, "failure reported " + reported.get() + " times in one run");
+            checkRead(name, history, 0, total, total);
+            checkRead(name, history, window, SEGMENT + 1, total);
+            
+            // The directory can be created now - the retry spills the whole backlog
+            Files.delete(blocker);
+            Files.createDirectories(blocker.resolve("segments"));
+            for (int p = total; p < total + SEGMENT; p++) {
+                history.add(record(p));
+            }
+            total += SEGMENT;
+            int expectedSegments = (total - window) / SEGMENT;
+            awaitSegments(history, expectedSegments);
+            check(name, reported.get() == 1, "a successful spill was reported as a failure");
+            checkRead(name, history, 0, total, total);
+            
+            // And a second failure run is reported again
+            try (Stream<Path> files = Files.walk(blocker)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.createFile(blocker);
+            for (int p = total; p < total + 2 * SEGMENT; p++) {
+                history.add(record(p));
+            }
+            total += 2 * SEGMENT;
+            drainSpills();
+            check(name, reported.get() == 2, "second failure run reported " + (reported.get() - 1) + " times");
+            check(name, history.size() == total, "size " + history.size() + ", expected " + total);
+            check(name, history.copyRecent().size() == total - expectedSegments * SEGMENT,
+                "records of the failed spills left the ring");
+            report(name, expectedSegments + " segments after recovery, " + reported.get() + " failure runs");
+        } finally {
+            delete(parent);
+        }
+    }
+    
+    // Record p of every history in this test
+    private static ParkingRecord record(long p) {
+        VehicleCategory category = VehicleCategory.values()[(int) (p % 3)];
+        LocalDateTime exit = START.plusMinutes(p);
+        return ParkingRecord.restore("REC" + p, "HS" + (p % 1000), category.name(), category,
+            exit.minusMinutes(30 + p % 90), exit, 1000 + p);
+    }
+    
+    private static boolean same(ParkingRecord actual, long p) {
+        ParkingRecord expected = record(p);
+        return actual.getRecordId().equals(expected.getRecordId())
+            && actual.getVehicleNumber().equals(expected.getVehicleNumber())
+            && actual.getVehicleType().equals(expected.getVehicleType())
+            && actual.getCategory() == expected.getCategory()
+            && actual.getEntryTime().equals(expected.getEntryTime())
+            && actual.getExitTime().equals(expected.getExitTime())
+            && actual.getCharges() == expected.getCharges();
+    }
+    
+    // Records [from, from + limit) of a history that had at least `size` records before the read
+    private static void checkRead(String name, ParkingHistory history, long from, int limit, long size) {
+        List<ParkingRecord> records = history.read(from, limit);
+        long least = Math.min(limit, size - from);
+        if (records.size() < least || records.size() > limit) {
+            check(name, false, "read(" + from + ", " + limit + ") returned " + records.size() + " records, expected "
+                + least + (least < limit ? " or more" : ""));
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            if (!same(records.get(i), from + i)) {
+                check(name, false, "read(" + from + ", " + limit + ") has " + records.get(i).getRecordId()
+                    + " at position " + (from + i));
+                return;
+            }
+        }
+    }
+    
+    // Page through an exit-time range, sometimes of one category, and expect exactly its records
+    private static void checkQuery(String name, ParkingHistory history, Random random, long size) {
+        long from = (long) (random.nextDouble() * size);
+        long to = Math.min(size, from + 1 + random.nextInt(3 * SEGMENT));
+        VehicleCategory category = random.nextBoolean() ? null : VehicleCategory.values()[random.nextInt(3)];
+        HistoryQuery query = HistoryQuery.all().exitedBetween(START.plusMinutes(from), START.plusMinutes(to));
+        if (category != null) {
+            query = query.withCategory(category);
+        }
+        String label = "query [" + from + ", " + to + ")" + (category == null ? "" : " " + category);
+        long expected = from;
+        long cursor = 0;
+        HistoryPage page;
+        do {
+            page = history.query(query, cursor, 1 + random.nextInt(700));
+            for (ParkingRecord record : page.getRecords()) {
+                while (category != null && expected < to && expected % 3 != category.ordinal()) {
+                    expected++;
+                }
+                if (expected >= to || !same(record, expected)) {
+                    check(name, false, label + " returned " + record.getRecordId() + ", expected REC" + expected);
+                    return;
+                }
+                expected++;
+            }
+            cursor = page.getNextCursor();
+        } while (page.hasMore());
+        while (category != null && expected < to && expected % 3 != category.ordinal()) {
+            expected++;
+        }
+        check(name, expected == to, label + " stopped before REC" + expected);
+    }
+    
+    // Spills of every history go through one writer thread in order, so once a spill queued
+    // now has completed, every spill queued before it has too
+    private static void drainSpills() throws Exception {
+        ParkingHistory marker = new ParkingHistory(0, null);
+        for (int p = 0; p < SEGMENT; p++) {
+            marker.add(record(p));
+        }
+        awaitSegments(marker, 1);
+    }
+    
+    private static void awaitSegments(ParkingHistory history, int segments) throws Exception {
+        long deadline = System.currentTimeMillis() + SPILL_TIMEOUT_MILLIS;
+        while (history.getSegmentCount() < segments && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+    
+    private static void check(String name, boolean condition, String message) {
+        if (!condition) {
+            failures.add(name + ": " + message);
+        }
+    }
+    
+    private static void report(String name, String detail) {
+        if (failures.stream().noneMatch(failure -> failure.startsWith(name + ":"))) {
+            System.out.println("✓ " + name + " (" + detail + ")");
+        }
+    }
+    
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
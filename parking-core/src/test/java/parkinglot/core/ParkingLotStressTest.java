@@ -0,0 +1,190 @@
+package parkinglot.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// System-level stress driver - gates park and exit cars, bikes and two-slot trucks
+// through ParkingLotSystem at once. Each gate parks and exits only its own plates,
+// so it knows which tickets it holds, while every gate competes for the same slots.
+// Slots a gate is given go into an owner table, so a slot handed to two vehicles is
+// caught when the second park returns. After every round the gates meet at a
+// barrier, and while they wait the lot is checked against the tickets they hold:
+// - the ticket index and getCurrentlyParked() match them
+// - every slot's occupancy agrees with them, in both the allocator and its ParkingSlot
+// - each category's free count is its capacity less the slots they cover
+// Run with: java -ea -cp <classes> parkinglot.core.ParkingLotStressTest [--gates 8]
+//     [--rounds 100] [--ops 500] [--lot 60,60,20]
+// --ops is per gate per round. Exits with status 1 if any round fails; the core
+// module's test phase runs it with the defaults.
+final class ParkingLotStressTest {
+    
+    public static void main(String[] args) throws Exception {
+        int gates = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int rounds = 100;
+        int ops = 500;
+        int[] lot = { 60, 60, 20 };
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--gates": gates = Integer.parseInt(args[i + 1]); break;
+                case "--rounds": rounds = Integer.parseInt(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                case "--lot": lot = CommandLineLists.parseInts(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        if (!run(gates, rounds, ops, lot)) {
+            System.exit(1);
+        }
+    }
+    
+    private static boolean run(int gates, int rounds, int ops, int[] lot) throws Exception {
+        ParkingLotSystem system = new ParkingLotSystem(lot[0], lot[1], lot[2]);
+        int plates = lot[0] + lot[1] + lot[2]; // per gate, so together the gates overfill the lot
+        int lastSlot = system.getFirstSlotNumber(VehicleCategory.TRUCK) + lot[2];
+        AtomicIntegerArray owners = new AtomicIntegerArray(lastSlot); // by slot number, 0 = free, else gate + 1
+        AtomicLong doubleAssigned = new AtomicLong();
+        AtomicLong lostExits = new AtomicLong(); // exits of a vehicle this gate holds that failed
+        List<Map<String, ParkingTicket>> held = new ArrayList<>();
+        for (int g = 0; g < gates; g++) {
+            held.add(new HashMap<>()); // written by its gate, read at the barrier
+        }
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger round = new AtomicInteger();
+        
+        // Runs on the last gate to arrive, while the others wait - no gate is mid-operation
+        CyclicBarrier quiescent = new CyclicBarrier(gates, () -> {
+            String failure = check(system, held, owners, lot);
+            if (failure != null) {
+                failures.add("round " + round.get() + ": " + failure);
+            }
+            round.incrementAndGet();
+        });
+        
+        ExecutorService pool = Executors.newFixedThreadPool(gates);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int g = 0; g < gates; g++) {
+                int owner = g + 1;
+                Map<String, ParkingTicket> mine = held.get(g);
+                futures.add(pool.submit(() -> {
+                    Random random = new Random(owner);
+                    for (int r = 0; r < rounds; r++) {
+                        for (int i = 0; i < ops; i++) {
+                            int plate = random.nextInt(plates);
+                            String number = "G" + owner + "-" + plate;
+                            ParkingTicket ticket = mine.remove(number);
+                            if (ticket != null) {
+                                // Give the slots back first - once exited, another gate may get them
+                                int end = ticket.getSlotNumber() + ticket.getSlotCount();
+                                for (int s = ticket.getSlotNumber(); s < end; s++) {
+                                    owners.compareAndSet(s, owner, 0);
+                                }
+                                try {
+                                    system.exitVehicle(number);
+                                } catch (VehicleNotFoundException e) {
+                                    lostExits.incrementAndGet();
+                                }
+                                continue;
+                            }
+                            try {
+                                ticket = system.parkVehicle(newVehicle(plate % 3, number));
+                            } catch (ParkingFullException e) {
+                                continue; // full - the next exits free it up
+                            }
+                            int end = ticket.getSlotNumber() + ticket.getSlotCount();
+                            for (int s = ticket.getSlotNumber(); s < end; s++) {
+                                if (!owners.compareAndSet(s, 0, owner)) {
+                                    doubleAssigned.incrementAndGet();
+                                }
+                            }
+                            mine.put(number, ticket);
+                        }
+                        quiescent.await();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        boolean passed = failures.isEmpty() && doubleAssigned.get() == 0 && lostExits.get() == 0;
+        System.out.printf("%s gates=%d rounds=%d ops=%d lot=%d/%d/%d parked=%d doubleAssigned=%d lostExits=%d%n",
+            passed ? "✓" : "✗", gates, rounds, ops, lot[0], lot[1], lot[2], system.getCurrentlyParked(),
+            doubleAssigned.get(), lostExits.get());
+        for (String failure : failures.subList(0, Math.min(5, failures.size()))) {
+            System.out.println("  " + failure);
+        }
+        return passed;
+    }
+    
+    private static Vehicle newVehicle(int kind, String number) {
+        switch (kind) {
+            case 0: return new Car(number, "Stress", "0000000000", "Stress");
+            case 1: return new Bike(number, "Stress", "0000000000", "Stress");
+            default: return new Truck(number, "Stress", "0000000000", 10);
+        }
+    }
+    
+    // The lot against the tickets the gates hold; null when they agree, else what is wrong
+    private static String check(ParkingLotSystem system, List<Map<String, ParkingTicket>> held,
+                                AtomicIntegerArray owners, int[] lot) {
+        if (!system.isTicketIndexConsistent()) {
+            return "ticket index out of sync";
+        }
+        Map<Integer, String> expected = new HashMap<>(); // slot number -> plate
+        int parked = 0;
+        for (Map<String, ParkingTicket> mine : held) {
+            parked += mine.size();
+            for (Map.Entry<String, ParkingTicket> entry : mine.entrySet()) {
+                ParkingTicket ticket = entry.getValue();
+                if (system.getTicket(entry.getKey()) != ticket) {
+                    return "no indexed ticket for " + entry.getKey();
+                }
+                int end = ticket.getSlotNumber() + ticket.getSlotCount();
+                for (int s = ticket.getSlotNumber(); s < end; s++) {
+                    if (expected.put(s, entry.getKey()) != null) {
+                        return "slot " + s + " is on two tickets";
+                    }
+                }
+            }
+        }
+        if (system.getCurrentlyParked() != parked) {
+            return "currently parked " + system.getCurrentlyParked() + ", gates hold " + parked;
+        }
+        int covered = 0;
+        for (VehicleCategory category : VehicleCategory.values()) {
+            int first = system.getFirstSlotNumber(category);
+            int capacity = lot[category.ordinal()];
+            long[] occupancy = system.occupancyWords(category);
+            int occupied = 0;
+            for (int i = 0; i < capacity; i++) {
+                int slotNumber = first + i;
+                String plate = expected.get(slotNumber);
+                ParkingSlot slot = system.getSlot(slotNumber);
+                boolean taken = (occupancy[i >>> 6] & (1L << i)) != 0;
+                if (taken != (plate != null) || slot.isOccupied() != (plate != null)
+                        || !Objects.equals(slot.getVehicleNumber(), plate)
+                        || (owners.get(slotNumber) != 0) != (plate != null)) {
+                    return "slot " + slotNumber + " disagrees with the tickets";
+                }
+                occupied += (plate != null) ? 1 : 0;
+            }
+            if (system.getAvailableSlots(category) != capacity - occupied) {
+                return category + " free count " + system.getAvailableSlots(category) + ", expected "
+                    + (capacity - occupied);
+            }
+            covered += occupied;
+        }
+        if (covered != expected.size()) {
+            return "tickets hold slots outside their category";
+        }
+        return null;
+    }
+}
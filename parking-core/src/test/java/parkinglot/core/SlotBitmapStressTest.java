@@ -0,0 +1,113 @@
+package parkinglot.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Concurrency stress driver for SlotBitmap - N threads claim and release slots at
+// random and record every slot they hold in an owner table, so a slot handed to
+// two gates at once is caught the moment the second gate tries to take ownership.
+// Run with: java -ea -cp <classes> parkinglot.core.SlotBitmapStressTest [--capacity 1000,70000]
+//     [--threads 8] [--ops 1000000]
+// Exits with status 1 on the first capacity that fails; the core module's test
+// phase runs it with --ops 200000.
+final class SlotBitmapStressTest {
+    
+    public static void main(String[] args) throws Exception {
+        int[] capacities = { 1000, 70000 };
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int ops = 1000000;
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--capacity": capacities = CommandLineLists.parseInts(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        boolean passed = true;
+        for (int capacity : capacities) {
+            passed &= run(capacity, threads, ops);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+    
+    // One round at this capacity; true when no slot was double-claimed and the counts add up
+    private static boolean run(int capacity, int threads, int ops) throws Exception {
+        SlotBitmap bitmap = new SlotBitmap(capacity);
+        AtomicIntegerArray owners = new AtomicIntegerArray(capacity); // 0 = free, else thread + 1
+        AtomicLong doubleClaims = new AtomicLong();
+        AtomicLong held = new AtomicLong();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int owner = t + 1;
+                futures.add(pool.submit(() -> {
+                    Random random = new Random(owner);
+                    int[] mine = new int[capacity];
+                    int count = 0;
+                    start.await();
+                    for (int i = 0; i < ops / threads; i++) {
+                        int choice = random.nextInt(3);
+                        if (choice == 0 && count > 0) {
+                            // Release a random slot this thread holds
+                            int pick = random.nextInt(count);
+                            int index = mine[pick];
+                            mine[pick] = mine[--count];
+                            owners.set(index, 0);
+                            bitmap.release(index);
+                            continue;
+                        }
+                        // Lowest-free allocate, or a targeted claim as journal replay does
+                        int index = (choice == 1) ? bitmap.allocate() : random.nextInt(capacity);
+                        if (choice != 1 && !bitmap.claim(index, 1)) {
+                            continue;
+                        }
+                        if (index < 0) {
+                            continue; // full
+                        }
+                        if (!owners.compareAndSet(index, 0, owner)) {
+                            doubleClaims.incrementAndGet();
+                            continue;
+                        }
+                        mine[count++] = index;
+                    }
+                    held.addAndGet(count);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        // Quiescent now - the bitmap must agree with the owner table slot by slot
+        int mismatches = 0;
+        int owned = 0;
+        for (int i = 0; i < capacity; i++) {
+            boolean free = owners.get(i) == 0;
+            owned += free ? 0 : 1;
+            if (bitmap.isFree(i) != free) {
+                mismatches++;
+            }
+        }
+        boolean passed = doubleClaims.get() == 0
+            && mismatches == 0
+            && owned == held.get()
+            && bitmap.getFreeCount() == capacity - owned;
+        
+        System.out.printf("%s capacity=%d threads=%d ops=%d held=%d free=%d doubleClaims=%d mismatches=%d%n",
+            passed ? "✓" : "✗", capacity, threads, ops, owned, bitmap.getFreeCount(),
+            doubleClaims.get(), mismatches);
+        return passed;
+    }
+}
@@ -0,0 +1,100 @@
+package parkinglot.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Concurrency driver for the ticket index - gates park and exit cars and bikes
+// from a shared pool of plates, so two gates often race to park or exit the same
+// vehicle. After every round all gates meet at a barrier, and while they wait the
+// lot is checked with isTicketIndexConsistent and against the parks and exits the
+// gates saw succeed.
+// Run with: java -ea -cp <classes> parkinglot.core.TicketIndexStressTest [--gates 8]
+//     [--rounds 200] [--ops 500] [--lot 100,100]
+// --ops is per gate per round. Exits with status 1 on the first round that fails;
+// the core module's test phase runs it with the defaults.
+final class TicketIndexStressTest {
+    
+    public static void main(String[] args) throws Exception {
+        int gates = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int rounds = 200;
+        int ops = 500;
+        int[] lot = { 100, 100 };
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--gates": gates = Integer.parseInt(args[i + 1]); break;
+                case "--rounds": rounds = Integer.parseInt(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                case "--lot": lot = CommandLineLists.parseInts(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        if (!run(gates, rounds, ops, lot[0], lot[1])) {
+            System.exit(1);
+        }
+    }
+    
+    private static boolean run(int gates, int rounds, int ops, int cars, int bikes) throws Exception {
+        ParkingLotSystem system = new ParkingLotSystem(cars, bikes, 0);
+        int plates = 2 * (cars + bikes); // enough that lots fill up and plates collide
+        AtomicLong parked = new AtomicLong(); // successful parks minus successful exits
+        AtomicLong races = new AtomicLong(); // parks or exits another gate got to first
+        AtomicInteger failedRound = new AtomicInteger(-1);
+        AtomicInteger round = new AtomicInteger();
+        
+        // Runs on the last gate to arrive, while the others wait - no gate is mid-operation
+        CyclicBarrier quiescent = new CyclicBarrier(gates, () -> {
+            int r = round.getAndIncrement();
+            if (failedRound.get() < 0 && (!system.isTicketIndexConsistent()
+                    || system.getCurrentlyParked() != parked.get())) {
+                failedRound.set(r);
+            }
+        });
+        
+        ExecutorService pool = Executors.newFixedThreadPool(gates);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int g = 0; g < gates; g++) {
+                int gate = g;
+                futures.add(pool.submit(() -> {
+                    Random random = new Random(gate);
+                    for (int r = 0; r < rounds; r++) {
+                        for (int i = 0; i < ops; i++) {
+                            int plate = random.nextInt(plates);
+                            String number = "IX" + plate;
+                            try {
+                                if (random.nextBoolean()) {
+                                    system.parkVehicle((plate % 2 == 0)
+                                        ? new Car(number, "Stress", "0000000000", "Stress")
+                                        : new Bike(number, "Stress", "0000000000", "Stress"));
+                                    parked.incrementAndGet();
+                                } else {
+                                    system.exitVehicle(number);
+                                    parked.decrementAndGet();
+                                }
+                            } catch (InvalidVehicleException | VehicleNotFoundException e) {
+                                races.incrementAndGet();
+                            } catch (ParkingFullException e) {
+                                // full - the next exits free it up
+                            }
+                        }
+                        quiescent.await();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        boolean passed = failedRound.get() < 0;
+        System.out.printf("%s gates=%d rounds=%d ops=%d parked=%d races=%d failedRound=%d%n",
+            passed ? "✓" : "✗", gates, rounds, ops, system.getCurrentlyParked(), races.get(), failedRound.get());
+        return passed;
+    }
+}
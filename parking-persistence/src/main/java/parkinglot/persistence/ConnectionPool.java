@@ -0,0 +1,124 @@
+package parkinglot.persistence;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.sql.*;
+
+// JDBC connection pool - each gate thread borrows its own connection instead of
+// sharing one. A connection idle longer than the validation window is checked
+// with isValid() before reuse; a dead one is replaced by a fresh connection, so a
+// dropped link heals on the next borrow. Connections idle past idleTimeout are
+// closed by a background evictor.
+class ConnectionPool implements AutoCloseable {
+    private static final long VALIDATION_WINDOW_MILLIS = 5_000;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    
+    private final String url;
+    private final String user;
+    private final String password;
+    private final long idleTimeoutMillis;
+    private final Semaphore permits;
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>(); // most recently used first, guarded by itself
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+    
+    public ConnectionPool(String url, String user, String password, int maxSize, long idleTimeoutMillis) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "parking-db-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", e);
+        }
+        
+        try {
+            PooledConnection pooled;
+            while ((pooled = pollIdle()) != null) {
+                if (pooled.isUsable(VALIDATION_WINDOW_MILLIS)) {
+                    pooled.lease();
+                    return pooled;
+                }
+                pooled.closeQuietly();
+            }
+            pooled = new PooledConnection(this, DriverManager.getConnection(url, user, password));
+            pooled.lease();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    void release(PooledConnection pooled) {
+        try {
+            if (closed || pooled.isBroken()) {
+                pooled.closeQuietly();
+            } else {
+                synchronized (idle) {
+                    idle.push(pooled);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+    
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+    
+    private PooledConnection pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+    
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.getLastUsedMillis() > idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(pooled);
+                }
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            pooled.closeQuietly();
+        }
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = pollIdle()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+}
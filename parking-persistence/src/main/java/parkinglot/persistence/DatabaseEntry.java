@@ -0,0 +1,23 @@
+package parkinglot.persistence;
+
+import java.time.*;
+
+// One parking_entries row of a history page; (entryTime, id) is its keyset position
+public final class DatabaseEntry {
+    final long id;
+    final LocalDateTime entryTime;
+    final String vehicleNumber;
+    final String ownerName;
+    final String vehicleType;
+    final String status;
+    
+    DatabaseEntry(long id, LocalDateTime entryTime, String vehicleNumber, String ownerName,
+                  String vehicleType, String status) {
+        this.id = id;
+        this.entryTime = entryTime;
+        this.vehicleNumber = vehicleNumber;
+        this.ownerName = ownerName;
+        this.vehicleType = vehicleType;
+        this.status = status;
+    }
+}
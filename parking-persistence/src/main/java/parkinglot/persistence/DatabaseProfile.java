@@ -0,0 +1,26 @@
+package parkinglot.persistence;
+
+import java.sql.*;
+
+// Database profile - where the connection pool points
+public enum DatabaseProfile {
+    MYSQL("MySQL", "com.mysql.cj.jdbc.Driver", "jdbc:mysql://localhost:3306/parkingdb", "root", "password"),
+    // In-process H2 speaking MySQL's dialect, for machines without a MySQL server
+    EMBEDDED("H2", "org.h2.Driver", "jdbc:h2:mem:parkingdb;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    
+    final String displayName;
+    final String driverClass;
+    final String url;
+    final String user;
+    final String password;
+    
+    DatabaseProfile(String displayName, String driverClass, String url, String user, String password) {
+        this.displayName = displayName;
+        this.driverClass = driverClass;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+    
+    public String getDisplayName() { return displayName; }
+}
@@ -0,0 +1,230 @@
+package parkinglot.persistence;
+
+import java.util.*;
+import java.sql.*;
+import java.time.*;
+
+import parkinglot.core.ParkingRecord;
+import parkinglot.core.Vehicle;
+
+public class ParkingDatabaseManager {
+    private static final int POOL_SIZE = 8;
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS parking_entries ("
+        + "id BIGINT AUTO_INCREMENT PRIMARY KEY, vehicle_number VARCHAR(20) NOT NULL, owner_name VARCHAR(100), "
+        + "phone VARCHAR(20), vehicle_type VARCHAR(50), entry_time DATETIME NOT NULL, exit_time DATETIME NULL, "
+        + "slot_number INT, charges DECIMAL(10,2), status VARCHAR(16) NOT NULL)";
+    public static final String INSERT_ENTRY_SQL = "INSERT INTO parking_entries (vehicle_number, owner_name, phone, vehicle_type, entry_time, slot_number, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_EXIT_SQL = "UPDATE parking_entries SET exit_time = ?, charges = ?, status = ? WHERE vehicle_number = ? AND status = 'PARKED'";
+    
+    // History pages newest first, keyed on (entry_time, id) so a deep page seeks
+    // the index instead of skipping rows. The index covers the projected columns,
+    // so a page never touches the table rows. It is declared descending so engines
+    // that cannot scan an index backwards still read it in page order.
+    static final String HISTORY_INDEX = "idx_entries_history";
+    static final String CREATE_HISTORY_INDEX_SQL = "CREATE INDEX " + HISTORY_INDEX + " ON parking_entries "
+        + "(entry_time DESC, id DESC, vehicle_number, vehicle_type, status, owner_name)";
+    private static final String HISTORY_COLUMNS = "SELECT id, entry_time, vehicle_number, owner_name, vehicle_type, status "
+        + "FROM parking_entries ";
+    static final String FIRST_HISTORY_PAGE_SQL = HISTORY_COLUMNS
+        + "ORDER BY entry_time DESC, id DESC LIMIT ?";
+    // The leading entry_time <= ? is redundant but gives the planner an index range;
+    // the OR alone is evaluated by scanning
+    static final String NEXT_HISTORY_PAGE_SQL = HISTORY_COLUMNS
+        + "WHERE entry_time <= ? AND (entry_time < ? OR (entry_time = ? AND id < ?)) "
+        + "ORDER BY entry_time DESC, id DESC LIMIT ?";
+    
+    private volatile ConnectionPool pool;
+    private volatile WriteBehindWriter writeBehind;
+    
+    // Work done on one borrowed connection
+    public interface SqlWork<T> {
+        T run(PooledConnection connection) throws SQLException;
+    }
+    
+    public void connect() {
+        connect(DatabaseProfile.MYSQL);
+    }
+    
+    public void connect(DatabaseProfile profile) {
+        if (pool != null) {
+            System.out.println("✓ Database already connected!");
+            return;
+        }
+        ConnectionPool newPool = null;
+        try {
+            Class.forName(profile.driverClass);
+            newPool = new ConnectionPool(profile.url, profile.user, profile.password, POOL_SIZE, IDLE_TIMEOUT_MILLIS);
+            
+            // First borrow proves the database is reachable
+            try (PooledConnection lease = newPool.borrow();
+                 Statement stmt = lease.get().createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+                if (!hasIndex(lease.get(), HISTORY_INDEX)) {
+                    stmt.execute(CREATE_HISTORY_INDEX_SQL);
+                }
+            }
+            pool = newPool;
+            System.out.println("✓ Database connected successfully! (" + profile.displayName + ")");
+        } catch (ClassNotFoundException e) {
+            System.out.println("✗ " + profile.displayName + " Driver not found!");
+        } catch (SQLException e) {
+            if (newPool != null) {
+                newPool.close();
+            }
+            System.out.println("✗ Database connection failed: " + e.getMessage());
+        }
+    }
+    
+    public boolean isConnected() {
+        return pool != null;
+    }
+    
+    // MySQL has no CREATE INDEX IF NOT EXISTS, so look the index up first
+    private static boolean hasIndex(Connection connection, String indexName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "PARKING_ENTRIES" : "parking_entries";
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+            while (indexes.next()) {
+                if (indexName.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    // Borrows a pooled connection for one unit of work. A connection that fails
+    // validation after an error is discarded, and the next borrow reconnects.
+    public <T> T withConnection(SqlWork<T> work) throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            throw new SQLException("Not connected");
+        }
+        try (PooledConnection lease = current.borrow()) {
+            try {
+                return work.run(lease);
+            } catch (SQLException e) {
+                lease.failed();
+                throw e;
+            }
+        }
+    }
+    
+    public void saveVehicleEntry(Vehicle vehicle, int slotNumber) {
+        try {
+            withConnection(connection -> {
+                PreparedStatement pstmt = connection.prepare(INSERT_ENTRY_SQL);
+                PersistenceEvent.entry(vehicle, slotNumber).bind(pstmt);
+                return pstmt.executeUpdate();
+            });
+            System.out.println("✓ Entry saved to database!");
+        } catch (SQLException e) {
+            System.out.println("✗ Error saving entry: " + e.getMessage());
+        }
+    }
+    
+    public void updateVehicleExit(String vehicleNumber, LocalDateTime exitTime, long charges) {
+        try {
+            withConnection(connection -> {
+                PreparedStatement pstmt = connection.prepare(UPDATE_EXIT_SQL);
+                PersistenceEvent.exit(vehicleNumber, exitTime, charges).bind(pstmt);
+                return pstmt.executeUpdate();
+            });
+            System.out.println("✓ Exit updated in database!");
+        } catch (SQLException e) {
+            System.out.println("✗ Error updating exit: " + e.getMessage());
+        }
+    }
+    
+    // Up to pageSize entries older than `after` (the last entry of the previous
+    // page, null for the newest), newest first
+    public List<DatabaseEntry> fetchHistoryPage(DatabaseEntry after, int pageSize) throws SQLException {
+        return withConnection(connection -> {
+            PreparedStatement pstmt;
+            if (after == null) {
+                pstmt = connection.prepare(FIRST_HISTORY_PAGE_SQL);
+                pstmt.setInt(1, pageSize);
+            } else {
+                pstmt = connection.prepare(NEXT_HISTORY_PAGE_SQL);
+                Timestamp entryTime = Timestamp.valueOf(after.entryTime);
+                pstmt.setTimestamp(1, entryTime);
+                pstmt.setTimestamp(2, entryTime);
+                pstmt.setTimestamp(3, entryTime);
+                pstmt.setLong(4, after.id);
+                pstmt.setInt(5, pageSize);
+            }
+            pstmt.setFetchSize(pageSize);
+            List<DatabaseEntry> page = new ArrayList<>(pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new DatabaseEntry(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(),
+                        rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6)));
+                }
+            }
+            return page;
+        });
+    }
+    
+    // Prints one page; returns its last entry for the next call, null at the end
+    public DatabaseEntry displayDatabaseRecords(DatabaseEntry after, int pageSize) {
+        try {
+            List<DatabaseEntry> page = fetchHistoryPage(after, pageSize);
+            
+            System.out.println("\n═══════════════════════════════════════════════════════");
+            System.out.println("            DATABASE RECORDS (Newest first)");
+            System.out.println("═══════════════════════════════════════════════════════");
+            
+            for (DatabaseEntry entry : page) {
+                System.out.printf("%-15s %-20s %-15s %s%n",
+                    entry.vehicleNumber, entry.ownerName, entry.vehicleType, entry.status);
+            }
+            return (page.size() < pageSize) ? null : page.get(page.size() - 1);
+        } catch (SQLException e) {
+            System.out.println("✗ Error fetching records: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Gate events go through a background writer instead of a round-trip each
+    public synchronized void enableWriteBehind(int queueCapacity, int batchSize, long lingerMillis) {
+        if (writeBehind == null) {
+            writeBehind = new WriteBehindWriter(this, queueCapacity, batchSize, lingerMillis);
+            System.out.println("✓ Write-behind enabled (batch " + batchSize + ", linger " + lingerMillis + " ms)");
+        }
+    }
+    
+    // Blocks while the write-behind queue is full (backpressure), else writes synchronously
+    public void queueVehicleEntry(Vehicle vehicle, int slotNumber) throws InterruptedException {
+        WriteBehindWriter writeBehind = this.writeBehind;
+        if (writeBehind != null) {
+            writeBehind.submit(PersistenceEvent.entry(vehicle, slotNumber));
+        } else {
+            saveVehicleEntry(vehicle, slotNumber);
+        }
+    }
+    
+    public void queueVehicleExit(ParkingRecord record) throws InterruptedException {
+        WriteBehindWriter writeBehind = this.writeBehind;
+        if (writeBehind != null) {
+            writeBehind.submit(PersistenceEvent.exit(record.getVehicleNumber(), record.getExitTime(), record.getCharges()));
+        } else {
+            updateVehicleExit(record.getVehicleNumber(), record.getExitTime(), record.getCharges());
+        }
+    }
+    
+    public synchronized void disconnect() {
+        // Flush queued gate events before the connections go away
+        WriteBehindWriter writeBehind = this.writeBehind;
+        if (writeBehind != null) {
+            this.writeBehind = null;
+            writeBehind.close();
+        }
+        if (pool != null) {
+            pool.close();
+            pool = null;
+            System.out.println("✓ Database disconnected!");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package parkinglot.persistence;
+
+import java.sql.*;
+import java.time.*;
+
+import parkinglot.core.Money;
+import parkinglot.core.Vehicle;
+
+// Gate event waiting to be written to parking_entries
+public final class PersistenceEvent {
+    final boolean isEntry;
+    final String vehicleNumber;
+    final String ownerName;
+    final String phoneNumber;
+    final String vehicleType;
+    final LocalDateTime time; // entry time or exit time
+    final int slotNumber;
+    final long charges; // in paise
+    
+    private PersistenceEvent(boolean isEntry, String vehicleNumber, String ownerName, String phoneNumber,
+                             String vehicleType, LocalDateTime time, int slotNumber, long charges) {
+        this.isEntry = isEntry;
+        this.vehicleNumber = vehicleNumber;
+        this.ownerName = ownerName;
+        this.phoneNumber = phoneNumber;
+        this.vehicleType = vehicleType;
+        this.time = time;
+        this.slotNumber = slotNumber;
+        this.charges = charges;
+    }
+    
+    public static PersistenceEvent entry(Vehicle vehicle, int slotNumber) {
+        return new PersistenceEvent(true, vehicle.getVehicleNumber(), vehicle.getOwnerName(),
+            vehicle.getPhoneNumber(), vehicle.getVehicleType(), vehicle.getEntryTime(), slotNumber, 0);
+    }
+    
+    static PersistenceEvent exit(String vehicleNumber, LocalDateTime exitTime, long charges) {
+        return new PersistenceEvent(false, vehicleNumber, null, null, null, exitTime, 0, charges);
+    }
+    
+    // Binds INSERT_ENTRY_SQL or UPDATE_EXIT_SQL parameters
+    public void bind(PreparedStatement pstmt) throws SQLException {
+        if (isEntry) {
+            pstmt.setString(1, vehicleNumber);
+            pstmt.setString(2, ownerName);
+            pstmt.setString(3, phoneNumber);
+            pstmt.setString(4, vehicleType);
+            pstmt.setTimestamp(5, Timestamp.valueOf(time));
+            pstmt.setInt(6, slotNumber);
+            pstmt.setString(7, "PARKED");
+        } else {
+            pstmt.setTimestamp(1, Timestamp.valueOf(time));
+            pstmt.setBigDecimal(2, Money.toDecimal(charges));
+            pstmt.setString(3, "COMPLETED");
+            pstmt.setString(4, vehicleNumber);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package parkinglot.persistence;
+
+import java.util.*;
+import java.sql.*;
+
+// A borrowed connection - close() hands it back to the pool. Each connection
+// keeps its prepared statements, so hot SQL is parsed and planned once per
+// connection and later events only bind parameters.
+public final class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final HashMap<String, PreparedStatement> statements = new HashMap<>(); // only touched by the leaseholder
+    private volatile long lastUsedMillis;
+    private boolean leased;
+    private boolean broken;
+    
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+    
+    public Connection get() { return connection; }
+    
+    // Cached statement for this SQL - do not close it, it lives as long as the connection
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt == null || pstmt.isClosed()) {
+            pstmt = connection.prepareStatement(sql);
+            statements.put(sql, pstmt);
+        }
+        return pstmt;
+    }
+    long getLastUsedMillis() { return lastUsedMillis; }
+    // Broken after a failed validation, or closed underneath us
+    boolean isBroken() {
+        try {
+            return broken || connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+    
+    void lease() {
+        leased = true;
+        broken = false;
+    }
+    
+    // Called after a SQLException - keep the connection only if it still answers
+    void failed() {
+        try {
+            broken = !connection.isValid(2);
+        } catch (SQLException e) {
+            broken = true;
+        }
+    }
+    
+    boolean isUsable(long validationWindowMillis) {
+        if (System.currentTimeMillis() - lastUsedMillis < validationWindowMillis) {
+            return true;
+        }
+        try {
+            return connection.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    void closeQuietly() {
+        for (PreparedStatement pstmt : statements.values()) {
+            try {
+                pstmt.close();
+            } catch (SQLException e) {
+                // closing the connection releases it anyway
+            }
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // already unusable
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (leased) {
+            leased = false;
+            lastUsedMillis = System.currentTimeMillis();
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package parkinglot.persistence;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.sql.*;
+
+// Write-behind pipeline - gates drop events into a bounded queue and one background
+// thread writes them with addBatch/executeBatch. A batch goes out when it reaches
+// batchSize or lingerMillis after its first event. submit() blocks while the queue
+// is full, and close() drains everything still queued.
+class WriteBehindWriter implements AutoCloseable {
+    private static final int MAX_ATTEMPTS = 3;
+    
+    private final ParkingDatabaseManager db;
+    private final ArrayBlockingQueue<PersistenceEvent> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private final AtomicInteger submitting = new AtomicInteger(); // gates between the running check and the enqueue
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    public WriteBehindWriter(ParkingDatabaseManager db, int queueCapacity, int batchSize, long lingerMillis) {
+        this.db = db;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.writer = new Thread(this::writeLoop, "parking-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    // Counted as submitting before running is read, and the writer only stops once
+    // nothing is submitting, so an accepted event is always drained and a full queue
+    // always empties
+    public void submit(PersistenceEvent event) throws InterruptedException {
+        submitting.incrementAndGet();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Write-behind writer is closed");
+            }
+            while (!queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("Write-behind writer has stopped");
+                }
+            }
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+    
+    public long getWrittenCount() { return written.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public int getQueuedCount() { return queue.size(); }
+    
+    private void writeLoop() {
+        ArrayList<PersistenceEvent> batch = new ArrayList<>(batchSize);
+        // Read in this order - a gate that counts itself after the check sees running false
+        while (running || submitting.get() > 0 || !queue.isEmpty()) {
+            try {
+                PersistenceEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                
+                // Linger so one round-trip carries as many events as possible
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = running ? deadline - System.nanoTime() : 0;
+                    PersistenceEvent next = (remaining > 0)
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false; // drain what is left and stop
+            }
+            writeWithRetry(batch);
+            batch.clear();
+        }
+    }
+    
+    private void writeWithRetry(List<PersistenceEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !batch.isEmpty(); attempt++) {
+            try {
+                writeBatch(batch);
+                written.addAndGet(batch.size());
+                return;
+            } catch (SQLException e) {
+                System.out.println("✗ Write-behind batch failed (attempt " + attempt + "): " + e.getMessage());
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException ie) {
+                    running = false;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            dropped.addAndGet(batch.size());
+            System.out.println("✗ Dropped " + batch.size() + " gate events after " + MAX_ATTEMPTS + " attempts");
+        }
+    }
+    
+    // One transaction per batch. Runs of entries and runs of exits are sent in
+    // arrival order, so an exit is never applied before the entry it closes.
+    private void writeBatch(List<PersistenceEvent> batch) throws SQLException {
+        db.withConnection(pooled -> {
+            writeBatch(pooled, batch);
+            return null;
+        });
+    }
+    
+    private void writeBatch(PooledConnection pooled, List<PersistenceEvent> batch) throws SQLException {
+        Connection connection = pooled.get();
+        PreparedStatement insert = pooled.prepare(ParkingDatabaseManager.INSERT_ENTRY_SQL);
+        PreparedStatement update = pooled.prepare(ParkingDatabaseManager.UPDATE_EXIT_SQL);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int i = 0;
+            while (i < batch.size()) {
+                boolean isEntry = batch.get(i).isEntry;
+                PreparedStatement pstmt = isEntry ? insert : update;
+                for (; i < batch.size() && batch.get(i).isEntry == isEntry; i++) {
+                    batch.get(i).bind(pstmt);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            insert.clearBatch();
+            update.clearBatch();
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    // Stop accepting events and flush everything already queued
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("✓ Write-behind flushed (" + written.get() + " written, " + dropped.get() + " dropped)");
+    }
+}